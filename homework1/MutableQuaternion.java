@@ -0,0 +1,132 @@
+/**
+ * A mutable quaternion for accumulating results in hot loops. Every operation
+ * updates this object in place and returns it, so a chain like
+ * q.addInPlace(x).scaleInPlace(k).normalizeInPlace() allocates nothing.
+ *
+ * No NaN checking happens along the way: the coefficients are only validated
+ * when freeze() turns the accumulator back into an immutable Quaternion.
+ */
+public class MutableQuaternion {
+
+    private double a;
+    private double b;
+    private double c;
+    private double d;
+
+    public MutableQuaternion() {
+    }
+
+    public MutableQuaternion(double a, double b, double c, double d) {
+        set(a, b, c, d);
+    }
+
+    public MutableQuaternion(Quaternion q) {
+        set(q);
+    }
+
+    public double a() {
+        return a;
+    }
+
+    public double b() {
+        return b;
+    }
+
+    public double c() {
+        return c;
+    }
+
+    public double d() {
+        return d;
+    }
+
+    public MutableQuaternion set(double a, double b, double c, double d) {
+        this.a = a;
+        this.b = b;
+        this.c = c;
+        this.d = d;
+        return this;
+    }
+
+    public MutableQuaternion set(Quaternion q) {
+        return set(q.a(), q.b(), q.c(), q.d());
+    }
+
+    public MutableQuaternion set(MutableQuaternion q) {
+        return set(q.a, q.b, q.c, q.d);
+    }
+
+    public MutableQuaternion addInPlace(double a, double b, double c, double d) {
+        return set(this.a + a, this.b + b, this.c + c, this.d + d);
+    }
+
+    public MutableQuaternion addInPlace(Quaternion q) {
+        return set(a + q.a(), b + q.b(), c + q.c(), d + q.d());
+    }
+
+    public MutableQuaternion addInPlace(MutableQuaternion q) {
+        return set(a + q.a, b + q.b, c + q.c, d + q.d);
+    }
+
+    public MutableQuaternion subInPlace(double a, double b, double c, double d) {
+        return set(this.a - a, this.b - b, this.c - c, this.d - d);
+    }
+
+    public MutableQuaternion subInPlace(Quaternion q) {
+        return set(a - q.a(), b - q.b(), c - q.c(), d - q.d());
+    }
+
+    public MutableQuaternion subInPlace(MutableQuaternion q) {
+        return set(a - q.a, b - q.b, c - q.c, d - q.d);
+    }
+
+    public MutableQuaternion scaleInPlace(double k) {
+        return set(k * a, k * b, k * c, k * d);
+    }
+
+    // Replaces this with the Hamilton product this * (a, b, c, d).
+    public MutableQuaternion multiplyInPlace(double a, double b, double c, double d) {
+        return set(
+                this.a * a - this.b * b - this.c * c - this.d * d,
+                this.a * b + this.b * a + this.c * d - this.d * c,
+                this.a * c - this.b * d + this.c * a + this.d * b,
+                this.a * d + this.b * c - this.c * b + this.d * a);
+    }
+
+    public MutableQuaternion multiplyInPlace(Quaternion q) {
+        return multiplyInPlace(q.a(), q.b(), q.c(), q.d());
+    }
+
+    public MutableQuaternion multiplyInPlace(MutableQuaternion q) {
+        return multiplyInPlace(q.a, q.b, q.c, q.d);
+    }
+
+    public double norm() {
+        return Math.sqrt(a * a + b * b + c * c + d * d);
+    }
+
+    public MutableQuaternion normalizeInPlace() {
+        double n = norm();
+        return set(a / n, b / n, c / n, d / n);
+    }
+
+    public MutableQuaternion conjugateInPlace() {
+        return set(a, -b, -c, -d);
+    }
+
+    public MutableQuaternion invertInPlace() {
+        double normSquared = a * a + b * b + c * c + d * d;
+        return set(a / normSquared, -b / normSquared, -c / normSquared, -d / normSquared);
+    }
+
+    // Returns an immutable copy of the current value. This is where NaN
+    // coefficients are finally rejected.
+    public Quaternion freeze() {
+        return new Quaternion(a, b, c, d);
+    }
+
+    @Override
+    public String toString() {
+        return "MutableQuaternion[a=" + a + ", b=" + b + ", c=" + c + ", d=" + d + "]";
+    }
+}
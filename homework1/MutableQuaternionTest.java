@@ -0,0 +1,65 @@
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class MutableQuaternionTest {
+
+    @Test
+    public void testConversions() {
+        var q = new Quaternion(3.5, 2.25, -100, -1.25);
+        var m = new MutableQuaternion(q);
+        assertEquals(3.5, m.a());
+        assertEquals(2.25, m.b());
+        assertEquals(-100.0, m.c());
+        assertEquals(-1.25, m.d());
+        assertEquals(q, m.freeze());
+        assertEquals(Quaternion.ZERO, new MutableQuaternion().freeze());
+        assertEquals(Quaternion.K, m.set(0, 0, 0, 1).freeze());
+    }
+
+    @Test
+    public void testInPlaceArithmeticMatchesRecord() {
+        var q1 = new Quaternion(1, 3, 5, 2);
+        var q2 = new Quaternion(-2, 2, 8, -1);
+        var m = new MutableQuaternion(q1);
+        assertSame(m, m.addInPlace(q2));
+        assertEquals(q1.plus(q2), m.freeze());
+        m.subInPlace(q2).subInPlace(new MutableQuaternion(q1));
+        assertEquals(q1.plus(q2).minus(q2).minus(q1), m.freeze());
+        m.set(q1).addInPlace(new MutableQuaternion(q2)).scaleInPlace(0.75);
+        assertEquals(q1.plus(q2).times(0.75), m.freeze());
+        m.set(q1).addInPlace(-2, 2, 8, -1).subInPlace(1, 3, 5, 2);
+        assertEquals(q1.plus(q2).minus(q1), m.freeze());
+    }
+
+    @Test
+    public void testMultiplyInPlaceMatchesRecord() {
+        var q1 = new Quaternion(1, 3, 5, 2);
+        var q2 = new Quaternion(-2, 2, 8, -1);
+        assertEquals(q1.times(q2), new MutableQuaternion(q1).multiplyInPlace(q2).freeze());
+        assertEquals(q2.times(q1), new MutableQuaternion(q2).multiplyInPlace(new MutableQuaternion(q1)).freeze());
+        assertEquals(Quaternion.K, new MutableQuaternion(Quaternion.I).multiplyInPlace(0, 0, 1, 0).freeze());
+    }
+
+    @Test
+    public void testNormsConjugatesAndInverses() {
+        var m = new MutableQuaternion(60, -20, 9, 12);
+        assertEquals(65.0, m.norm());
+        m.set(1, -1, -1, 1).normalizeInPlace();
+        assertEquals(new Quaternion(0.5, -0.5, -0.5, 0.5), m.freeze());
+        m.set(1, -21, -1, 13).conjugateInPlace();
+        assertEquals(new Quaternion(1, 21, 1, -13), m.freeze());
+        m.set(1, -1, 1, -1).invertInPlace();
+        assertEquals(new Quaternion(0.25, 0.25, -0.25, 0.25), m.freeze());
+        m.invertInPlace();
+        assertEquals(new Quaternion(1, -1, 1, -1), m.freeze());
+    }
+
+    @Test
+    public void testNaNIsOnlyRejectedOnFreeze() {
+        var m = new MutableQuaternion().normalizeInPlace();
+        assertThrows(IllegalArgumentException.class, () -> m.freeze());
+        assertEquals(Quaternion.I, m.set(Quaternion.I).freeze());
+    }
+}
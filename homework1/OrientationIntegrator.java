@@ -0,0 +1,120 @@
+import java.util.ArrayList;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Integrates a stream of gyroscope samples into an orientation. Each sample is
+ * a body-frame angular velocity (wx, wy, wz) in radians per second, held
+ * constant for dt seconds, which rotates the orientation by
+ * q = q * exp(w dt / 2). Samples are consumed in primitive batches, and the
+ * orientation lives in a MutableQuaternion, so nothing is allocated per sample.
+ *
+ * Rounding makes the orientation drift off unit length. Rather than paying
+ * for a square root every sample, it is only renormalized when its norm has
+ * drifted from 1 by more than the tolerance.
+ *
+ * An integrator is not thread-safe, but separate integrators can run in
+ * parallel; see integrateAll.
+ */
+public class OrientationIntegrator {
+
+    // Below this rotation angle per sample, the sine and cosine are replaced
+    // by Taylor polynomials. With h = theta/2 < 5e-4, the first dropped terms
+    // are h^6/720 in the cosine and h^6/5040 relative in sin(h)/h, both below
+    // 1e-22, so the error is well under a rounding error.
+    private static final double SMALL_ANGLE = 1e-3;
+
+    private final MutableQuaternion orientation;
+    private final double lowerNormSquared;
+    private final double upperNormSquared;
+    private long samples = 0;
+    private long renormalizations = 0;
+
+    public OrientationIntegrator(Quaternion initial, double tolerance) {
+        if (!(tolerance > 0 && tolerance < 1)) {
+            throw new IllegalArgumentException("Tolerance must be between 0 and 1");
+        }
+        this.orientation = new MutableQuaternion(initial).normalizeInPlace();
+        // Compare squared norms, so the check itself needs no square root.
+        this.lowerNormSquared = (1 - tolerance) * (1 - tolerance);
+        this.upperNormSquared = (1 + tolerance) * (1 + tolerance);
+    }
+
+    public Quaternion orientation() {
+        return orientation.freeze();
+    }
+
+    public long samples() {
+        return samples;
+    }
+
+    public long renormalizations() {
+        return renormalizations;
+    }
+
+    // Integrates count samples stored as (wx, wy, wz) triples starting at
+    // omega[offset], each lasting dt seconds.
+    public void integrate(double[] omega, int offset, int count, double dt) {
+        if (offset < 0 || count < 0 || offset + 3L * count > omega.length) {
+            throw new IndexOutOfBoundsException();
+        }
+        for (var i = 0; i < count; i++) {
+            double wx = omega[offset + 3 * i];
+            double wy = omega[offset + 3 * i + 1];
+            double wz = omega[offset + 3 * i + 2];
+            double speedSquared = wx * wx + wy * wy + wz * wz;
+            double halfAngleSquared = speedSquared * dt * dt / 4;
+            // The step is (cos(theta/2), sin(theta/2) w/|w|) with theta = |w| dt;
+            // k is sin(theta/2)/|w|.
+            double cos, k;
+            if (halfAngleSquared < SMALL_ANGLE * SMALL_ANGLE / 4) {
+                cos = 1 - halfAngleSquared / 2 + halfAngleSquared * halfAngleSquared / 24;
+                k = dt / 2 * (1 - halfAngleSquared / 6 + halfAngleSquared * halfAngleSquared / 120);
+            } else {
+                double speed = Math.sqrt(speedSquared);
+                cos = Math.cos(speed * dt / 2);
+                k = Math.sin(speed * dt / 2) / speed;
+            }
+            orientation.multiplyInPlace(cos, k * wx, k * wy, k * wz);
+            double normSquared = orientation.a() * orientation.a() + orientation.b() * orientation.b()
+                    + orientation.c() * orientation.c() + orientation.d() * orientation.d();
+            if (normSquared < lowerNormSquared || normSquared > upperNormSquared) {
+                orientation.normalizeInPlace();
+                renormalizations++;
+            }
+        }
+        samples += count;
+    }
+
+    // Runs integrators[i].integrate(omegas[i], 0, counts[i], dt) for every i,
+    // one task per integrator, on the given executor, and waits for them all.
+    // Any executor works: a fixed pool, or on newer JDKs one that runs each
+    // task on a virtual thread (nothing here blocks while holding a lock).
+    public static void integrateAll(ExecutorService executor, OrientationIntegrator[] integrators,
+            double[][] omegas, int[] counts, double dt) throws InterruptedException {
+        if (omegas.length != integrators.length || counts.length != integrators.length) {
+            throw new IllegalArgumentException("Need one batch and one count per integrator");
+        }
+        var tasks = new ArrayList<Callable<Void>>(integrators.length);
+        for (var i = 0; i < integrators.length; i++) {
+            var integrator = integrators[i];
+            var omega = omegas[i];
+            var count = counts[i];
+            tasks.add(() -> {
+                integrator.integrate(omega, 0, count, dt);
+                return null;
+            });
+        }
+        for (var future : executor.invokeAll(tasks)) {
+            try {
+                future.get();
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof RuntimeException cause) {
+                    throw cause;
+                }
+                throw new IllegalStateException(e.getCause());
+            }
+        }
+    }
+}
@@ -0,0 +1,104 @@
+import java.util.concurrent.Executors;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class OrientationIntegratorTest {
+
+    private static void assertClose(Quaternion expected, Quaternion actual, double tolerance) {
+        // q and -q are the same orientation
+        var sign = expected.a() * actual.a() + expected.b() * actual.b()
+                + expected.c() * actual.c() + expected.d() * actual.d() < 0 ? -1 : 1;
+        assertEquals(expected.a(), sign * actual.a(), tolerance);
+        assertEquals(expected.b(), sign * actual.b(), tolerance);
+        assertEquals(expected.c(), sign * actual.c(), tolerance);
+        assertEquals(expected.d(), sign * actual.d(), tolerance);
+    }
+
+    // count samples of a constant angular velocity about z
+    private static double[] spinAboutZ(double speed, int count) {
+        var omega = new double[3 * count];
+        for (var i = 0; i < count; i++) {
+            omega[3 * i + 2] = speed;
+        }
+        return omega;
+    }
+
+    @Test
+    public void testConstantRotation() {
+        // A quarter turn per second about z, for one second at 10kHz, in two
+        // batches, which gives a quarter turn.
+        var integrator = new OrientationIntegrator(new Quaternion(1, 0, 0, 0), 1e-9);
+        var omega = spinAboutZ(Math.PI / 2, 5000);
+        integrator.integrate(omega, 0, 5000, 1e-4);
+        integrator.integrate(omega, 0, 5000, 1e-4);
+        assertEquals(10000, integrator.samples());
+        var quarterTurn = new Quaternion(Math.cos(Math.PI / 4), 0, 0, Math.sin(Math.PI / 4));
+        assertClose(quarterTurn, integrator.orientation(), 1e-9);
+    }
+
+    @Test
+    public void testSmallStepsMatchExactTrig() {
+        // Just under the threshold, where the Taylor terms matter most
+        var halfAngle = 4.99e-4;
+        var integrator = new OrientationIntegrator(Quaternion.ONE, 1e-9);
+        integrator.integrate(new double[] {0, 0, 2 * halfAngle}, 0, 1, 1);
+        var actual = integrator.orientation();
+        assertEquals(Math.cos(halfAngle), actual.a(), Math.ulp(1.0));
+        assertEquals(Math.sin(halfAngle), actual.d(), 1.5 * Math.ulp(Math.sin(halfAngle)));
+    }
+
+    @Test
+    public void testLargeStepsUseExactTrig() {
+        var integrator = new OrientationIntegrator(Quaternion.I, 1e-9);
+        integrator.integrate(new double[] { 0, 0, Math.PI }, 0, 1, 1);
+        assertClose(Quaternion.I.times(Quaternion.K), integrator.orientation(), 1e-12);
+    }
+
+    @Test
+    public void testRenormalizesOnlyPastTolerance() {
+        var loose = new OrientationIntegrator(new Quaternion(1, 0, 0, 0), 1e-3);
+        var tight = new OrientationIntegrator(new Quaternion(1, 0, 0, 0), 1e-15);
+        var omega = new double[3 * 100_000];
+        for (var i = 0; i < omega.length; i++) {
+            omega[i] = Math.sin(i) * 10;
+        }
+        loose.integrate(omega, 0, 100_000, 1e-4);
+        tight.integrate(omega, 0, 100_000, 1e-4);
+        assertEquals(0, loose.renormalizations());
+        assertTrue(tight.renormalizations() > 0);
+        assertEquals(1.0, loose.orientation().norm(), 1e-3);
+        assertClose(tight.orientation(), loose.orientation().normalized(), 1e-9);
+    }
+
+    @Test
+    public void testManyStreamsInParallel() throws InterruptedException {
+        var streams = 16;
+        var integrators = new OrientationIntegrator[streams];
+        var omegas = new double[streams][];
+        var counts = new int[streams];
+        for (var i = 0; i < streams; i++) {
+            integrators[i] = new OrientationIntegrator(new Quaternion(1, 0, 0, 0), 1e-9);
+            omegas[i] = spinAboutZ(i, 1000);
+            counts[i] = 1000;
+        }
+        var executor = Executors.newFixedThreadPool(4);
+        try {
+            OrientationIntegrator.integrateAll(executor, integrators, omegas, counts, 1e-3);
+        } finally {
+            executor.shutdown();
+        }
+        for (var i = 0; i < streams; i++) {
+            var expected = new Quaternion(Math.cos(i / 2.0), 0, 0, Math.sin(i / 2.0));
+            assertClose(expected, integrators[i].orientation(), 1e-9);
+        }
+    }
+
+    @Test
+    public void testBadArguments() {
+        assertThrows(IllegalArgumentException.class, () -> new OrientationIntegrator(Quaternion.I, 0));
+        var integrator = new OrientationIntegrator(Quaternion.I, 1e-9);
+        assertThrows(IndexOutOfBoundsException.class, () -> integrator.integrate(new double[5], 0, 2, 1));
+    }
+}
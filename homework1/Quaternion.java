@@ -1,8 +1,13 @@
+import java.nio.BufferOverflowException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.DoubleBuffer;
 import java.util.List;
 
 public record Quaternion(double a, double b, double c, double d) {
 
     public static final Quaternion ZERO = new Quaternion(0, 0, 0, 0);
+    public static final Quaternion ONE = new Quaternion(1, 0, 0, 0);
     public static final Quaternion I = new Quaternion(0, 1, 0, 0);
     public static final Quaternion J = new Quaternion(0, 0, 1, 0);
     public static final Quaternion K = new Quaternion(0, 0, 0, 1);
@@ -24,6 +29,16 @@ public record Quaternion(double a, double b, double c, double d) {
     public Quaternion times(double k) {
         return new Quaternion(k * a, k * b, k * c, k * d);
     }
+
+    // The Hamilton product, which is not commutative: I.times(J) is K but
+    // J.times(I) is -K.
+    public Quaternion times(Quaternion qt) {
+        return new Quaternion(
+                a * qt.a - b * qt.b - c * qt.c - d * qt.d,
+                a * qt.b + b * qt.a + c * qt.d - d * qt.c,
+                a * qt.c - b * qt.d + c * qt.a + d * qt.b,
+                a * qt.d + b * qt.c - c * qt.b + d * qt.a);
+    }
     public double norm() {
         return Math.sqrt(a * a + b * b + c * c + d * d);
     }
@@ -39,8 +54,124 @@ public record Quaternion(double a, double b, double c, double d) {
         double normSquared = a * a + b * b + c * c + d * d;
         return new Quaternion(conjugate.a / normSquared, conjugate.b / normSquared, conjugate.c / normSquared, conjugate.d / normSquared);
     }
+    // e^q = e^a (cos|v| + (v/|v|) sin|v|), where v = bi + cj + dk. Throws an
+    // ArithmeticException if e^a overflows (a above about 709) or |v| is
+    // infinite, where the result would have NaN coefficients.
+    public Quaternion exp() {
+        double vectorNorm = Math.sqrt(b * b + c * c + d * d);
+        double scale = Math.exp(a);
+        if (Double.isInfinite(scale) || Double.isInfinite(vectorNorm)) {
+            throw new ArithmeticException("Exponential is out of range");
+        }
+        if (vectorNorm == 0) {
+            return new Quaternion(scale, 0, 0, 0);
+        }
+        double k = scale * Math.sin(vectorNorm) / vectorNorm;
+        return new Quaternion(scale * Math.cos(vectorNorm), k * b, k * c, k * d);
+    }
+
+    // The principal logarithm, ln|q| + (v/|v|) acos(a/|q|). For negative reals,
+    // where v is zero and any direction would do, the i direction is used.
+    public Quaternion log() {
+        double n = norm();
+        if (n == 0) {
+            throw new IllegalArgumentException("Cannot take the logarithm of zero");
+        }
+        double vectorNorm = Math.sqrt(b * b + c * c + d * d);
+        if (vectorNorm == 0) {
+            return new Quaternion(Math.log(n), a < 0 ? Math.PI : 0, 0, 0);
+        }
+        double k = Math.acos(Math.max(-1, Math.min(1, a / n))) / vectorNorm;
+        return new Quaternion(Math.log(n), k * b, k * c, k * d);
+    }
+
+    // q^t = e^(t ln q). Anything to the power zero is one, zero included, and
+    // zero to a positive power is zero. Like exp, throws an
+    // ArithmeticException if the result is too big for a double.
+    public Quaternion pow(double t) {
+        if (t == 0) {
+            return ONE;
+        }
+        if (t > 0 && a == 0 && b == 0 && c == 0 && d == 0) {
+            return ZERO;
+        }
+        return log().times(t).exp();
+    }
+
+    public RotationMatrix toRotationMatrix() {
+        return new RotationMatrix(this);
+    }
+
+    // Rotates each (x, y, z) triple in xyz by this quaternion, writing the
+    // results to dest (which may be xyz itself). The quaternion is converted to
+    // a rotation matrix once for the whole batch; to rotate many batches by the
+    // same quaternion, keep the result of toRotationMatrix() instead.
+    public void rotate(double[] xyz, double[] dest) {
+        toRotationMatrix().rotate(xyz, dest);
+    }
+
     public List<Double> coefficients() {
         return List.of(a, b, c, d);
-    }    
+    }
+
+    // Unboxed alternatives to coefficients(): write a, b, c, d to four
+    // consecutive slots, and read them back.
+    public void writeTo(double[] dest, int offset) {
+        dest[offset] = a;
+        dest[offset + 1] = b;
+        dest[offset + 2] = c;
+        dest[offset + 3] = d;
+    }
+
+    // The buffer methods check the space up front, and the read methods only
+    // move the position once the quaternion has been created, so a failed
+    // call (including a read of a NaN coefficient) leaves the buffer's
+    // position unchanged.
+    public void writeTo(DoubleBuffer dest) {
+        if (dest.remaining() < 4) {
+            throw new BufferOverflowException();
+        }
+        dest.put(a).put(b).put(c).put(d);
+    }
+
+    public void writeTo(ByteBuffer dest) {
+        if (dest.remaining() < 4 * Double.BYTES) {
+            throw new BufferOverflowException();
+        }
+        dest.putDouble(a).putDouble(b).putDouble(c).putDouble(d);
+    }
+
+    public static Quaternion readFrom(double[] src, int offset) {
+        return new Quaternion(src[offset], src[offset + 1], src[offset + 2], src[offset + 3]);
+    }
+
+    public static Quaternion readFrom(DoubleBuffer src) {
+        if (src.remaining() < 4) {
+            throw new BufferUnderflowException();
+        }
+        var q = readFrom(src, src.position());
+        src.position(src.position() + 4);
+        return q;
+    }
+
+    public static Quaternion readFrom(ByteBuffer src) {
+        if (src.remaining() < 4 * Double.BYTES) {
+            throw new BufferUnderflowException();
+        }
+        var q = readFrom(src, src.position());
+        src.position(src.position() + 4 * Double.BYTES);
+        return q;
+    }
+
+    // Absolute reads, starting at the given index, that never move the
+    // buffer's position.
+    public static Quaternion readFrom(DoubleBuffer src, int index) {
+        return new Quaternion(src.get(index), src.get(index + 1), src.get(index + 2), src.get(index + 3));
+    }
+
+    public static Quaternion readFrom(ByteBuffer src, int index) {
+        return new Quaternion(src.getDouble(index), src.getDouble(index + Double.BYTES),
+                src.getDouble(index + 2 * Double.BYTES), src.getDouble(index + 3 * Double.BYTES));
+    }
 }
 
@@ -0,0 +1,145 @@
+/**
+ * A fixed-length array of quaternions stored as four parallel lanes of
+ * doubles, one per coefficient, rather than as an array of Quaternion records.
+ * Every operation on Quaternion has a batch version here that writes its
+ * results into a caller-supplied destination, so a loop over millions of
+ * quaternions allocates nothing.
+ *
+ * The destination may be the same array as a source, in which case the
+ * operation happens in place. Unlike the record, the lanes are allowed to hold
+ * NaN (for example after normalizing a zero quaternion); this is only detected
+ * when the element is read back with get.
+ */
+public class QuaternionArray {
+
+    // The four coefficient lanes, all of the same length. These are package
+    // private so the other batch kernels can work on them directly.
+    final double[] a;
+    final double[] b;
+    final double[] c;
+    final double[] d;
+
+    public QuaternionArray(int length) {
+        if (length < 0) {
+            throw new IllegalArgumentException("Length cannot be negative");
+        }
+        a = new double[length];
+        b = new double[length];
+        c = new double[length];
+        d = new double[length];
+    }
+
+    public static QuaternionArray from(Quaternion... quaternions) {
+        var array = new QuaternionArray(quaternions.length);
+        for (var i = 0; i < quaternions.length; i++) {
+            array.set(i, quaternions[i]);
+        }
+        return array;
+    }
+
+    public int length() {
+        return a.length;
+    }
+
+    public Quaternion get(int i) {
+        return new Quaternion(a[i], b[i], c[i], d[i]);
+    }
+
+    public void set(int i, Quaternion q) {
+        a[i] = q.a();
+        b[i] = q.b();
+        c[i] = q.c();
+        d[i] = q.d();
+    }
+
+    public Quaternion[] toArray() {
+        var quaternions = new Quaternion[length()];
+        for (var i = 0; i < quaternions.length; i++) {
+            quaternions[i] = get(i);
+        }
+        return quaternions;
+    }
+
+    public void plus(QuaternionArray other, QuaternionArray dest) {
+        checkLength(other);
+        checkLength(dest);
+        for (var i = 0; i < a.length; i++) {
+            dest.a[i] = a[i] + other.a[i];
+            dest.b[i] = b[i] + other.b[i];
+            dest.c[i] = c[i] + other.c[i];
+            dest.d[i] = d[i] + other.d[i];
+        }
+    }
+
+    public void minus(QuaternionArray other, QuaternionArray dest) {
+        checkLength(other);
+        checkLength(dest);
+        for (var i = 0; i < a.length; i++) {
+            dest.a[i] = a[i] - other.a[i];
+            dest.b[i] = b[i] - other.b[i];
+            dest.c[i] = c[i] - other.c[i];
+            dest.d[i] = d[i] - other.d[i];
+        }
+    }
+
+    public void times(double k, QuaternionArray dest) {
+        checkLength(dest);
+        for (var i = 0; i < a.length; i++) {
+            dest.a[i] = k * a[i];
+            dest.b[i] = k * b[i];
+            dest.c[i] = k * c[i];
+            dest.d[i] = k * d[i];
+        }
+    }
+
+    public void norm(double[] dest) {
+        checkLength(dest.length);
+        for (var i = 0; i < a.length; i++) {
+            dest[i] = Math.sqrt(a[i] * a[i] + b[i] * b[i] + c[i] * c[i] + d[i] * d[i]);
+        }
+    }
+
+    public void normalized(QuaternionArray dest) {
+        checkLength(dest);
+        for (var i = 0; i < a.length; i++) {
+            // Divide rather than multiply by the reciprocal, so the results are
+            // identical to Quaternion.normalized.
+            double n = Math.sqrt(a[i] * a[i] + b[i] * b[i] + c[i] * c[i] + d[i] * d[i]);
+            dest.a[i] = a[i] / n;
+            dest.b[i] = b[i] / n;
+            dest.c[i] = c[i] / n;
+            dest.d[i] = d[i] / n;
+        }
+    }
+
+    public void conjugate(QuaternionArray dest) {
+        checkLength(dest);
+        for (var i = 0; i < a.length; i++) {
+            dest.a[i] = a[i];
+            dest.b[i] = -b[i];
+            dest.c[i] = -c[i];
+            dest.d[i] = -d[i];
+        }
+    }
+
+    public void inverse(QuaternionArray dest) {
+        checkLength(dest);
+        for (var i = 0; i < a.length; i++) {
+            double normSquared = a[i] * a[i] + b[i] * b[i] + c[i] * c[i] + d[i] * d[i];
+            dest.a[i] = a[i] / normSquared;
+            dest.b[i] = -b[i] / normSquared;
+            dest.c[i] = -c[i] / normSquared;
+            dest.d[i] = -d[i] / normSquared;
+        }
+    }
+
+    void checkLength(QuaternionArray other) {
+        checkLength(other.length());
+    }
+
+    void checkLength(int length) {
+        if (length != a.length) {
+            throw new IllegalArgumentException("Array lengths must match");
+        }
+    }
+}
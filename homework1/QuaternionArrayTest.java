@@ -0,0 +1,99 @@
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class QuaternionArrayTest {
+
+    private final Quaternion[] left = {
+            new Quaternion(1, 3, 5, 2),
+            new Quaternion(60, -20, 9, 12),
+            new Quaternion(1, -1, 1, -1),
+            new Quaternion(0.5, -0.25, 3.75, 100),
+    };
+
+    private final Quaternion[] right = {
+            new Quaternion(-2, 2, 8, -1),
+            new Quaternion(12, 3, 84, -4),
+            new Quaternion(0.25, 0.25, -0.25, 0.25),
+            new Quaternion(-7, 0, 1.5, 2),
+    };
+
+    @Test
+    public void testGetAndSet() {
+        var array = new QuaternionArray(3);
+        assertEquals(3, array.length());
+        assertEquals(Quaternion.ZERO, array.get(1));
+        array.set(1, Quaternion.J);
+        assertEquals(Quaternion.J, array.get(1));
+        assertArrayEquals(left, QuaternionArray.from(left).toArray());
+    }
+
+    @Test
+    public void testConstructorErrors() {
+        assertThrows(IllegalArgumentException.class, () -> new QuaternionArray(-1));
+    }
+
+    @Test
+    public void testBatchesMatchTheRecord() {
+        var x = QuaternionArray.from(left);
+        var y = QuaternionArray.from(right);
+        var dest = new QuaternionArray(left.length);
+        var norms = new double[left.length];
+
+        x.plus(y, dest);
+        for (var i = 0; i < left.length; i++) {
+            assertEquals(left[i].plus(right[i]), dest.get(i));
+        }
+        x.minus(y, dest);
+        for (var i = 0; i < left.length; i++) {
+            assertEquals(left[i].minus(right[i]), dest.get(i));
+        }
+        x.times(-2.5, dest);
+        for (var i = 0; i < left.length; i++) {
+            assertEquals(left[i].times(-2.5), dest.get(i));
+        }
+        x.norm(norms);
+        for (var i = 0; i < left.length; i++) {
+            assertEquals(left[i].norm(), norms[i]);
+        }
+        x.normalized(dest);
+        for (var i = 0; i < left.length; i++) {
+            assertEquals(left[i].normalized(), dest.get(i));
+        }
+        x.conjugate(dest);
+        for (var i = 0; i < left.length; i++) {
+            assertEquals(left[i].conjugate(), dest.get(i));
+        }
+        x.inverse(dest);
+        for (var i = 0; i < left.length; i++) {
+            assertEquals(left[i].inverse(), dest.get(i));
+        }
+    }
+
+    @Test
+    public void testInPlace() {
+        var x = QuaternionArray.from(left);
+        x.times(2, x);
+        x.conjugate(x);
+        for (var i = 0; i < left.length; i++) {
+            assertEquals(left[i].times(2).conjugate(), x.get(i));
+        }
+    }
+
+    @Test
+    public void testMismatchedLengthsThrow() {
+        var x = new QuaternionArray(4);
+        var y = new QuaternionArray(3);
+        assertThrows(IllegalArgumentException.class, () -> x.plus(y, x));
+        assertThrows(IllegalArgumentException.class, () -> x.times(2, y));
+        assertThrows(IllegalArgumentException.class, () -> x.norm(new double[3]));
+    }
+
+    @Test
+    public void testNaNIsOnlyRejectedOnRead() {
+        var x = new QuaternionArray(1);
+        x.normalized(x);
+        assertThrows(IllegalArgumentException.class, () -> x.get(0));
+    }
+}
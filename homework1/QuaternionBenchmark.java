@@ -0,0 +1,225 @@
+import java.lang.management.ManagementFactory;
+import java.util.Random;
+
+/**
+ * A small benchmark harness for every Quaternion operation, for chained
+ * expressions, and for the batch versions. For each benchmark it reports the
+ * time per operation and the bytes allocated per operation, measured with the
+ * thread allocation counter after a warmup, so that allocation and throughput
+ * regressions show up as numbers.
+ *
+ * The allocation figure is what tells us whether the JIT scalar-replaced the
+ * intermediate records: each Quaternion is 48 bytes, and every result is
+ * stored into an array so it has to be allocated, so a benchmark reporting 48
+ * bytes per operation allocated only its result, and one reporting more also
+ * allocated intermediates. Run with -XX:-DoEscapeAnalysis to compare. Only
+ * the benchmark thread's allocation is counted, so for batchParallelSum, which
+ * runs in the common fork/join pool, the figure leaves out nearly everything.
+ *
+ * Usage: java --add-modules jdk.incubator.vector QuaternionBenchmark [filter]
+ * where the optional filter selects benchmarks whose names contain it.
+ */
+public class QuaternionBenchmark {
+
+    private static final int INPUTS = 1024;
+    private static final int OPERATIONS = 2_000_000;
+    private static final int BATCH_SIZE = 65_536;
+    private static final int WARMUP_ROUNDS = 10;
+    private static final int MEASURED_ROUNDS = 10;
+
+    // Results are stored here so that the JIT can neither eliminate the work
+    // nor avoid allocating the result.
+    private static final Object[] results = new Object[INPUTS];
+    // Primitive results are summed into this, so that they are not boxed.
+    private static double doubleResult;
+
+    private static final com.sun.management.ThreadMXBean threads =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    private static String filter = "";
+
+    public static void main(String[] args) {
+        if (args.length > 0) {
+            filter = args[0];
+        }
+        var random = new Random(2120);
+        var in = new Quaternion[INPUTS];
+        for (var i = 0; i < INPUTS; i++) {
+            in[i] = new Quaternion(random.nextGaussian(), random.nextGaussian(),
+                    random.nextGaussian(), random.nextGaussian());
+        }
+        var mask = INPUTS - 1;
+        var accumulator = new MutableQuaternion();
+        var doubles = new double[4];
+        var point = new double[3];
+
+        System.out.printf("%-28s %12s %12s%n", "Benchmark", "ns/op", "bytes/op");
+
+        single("plus", () -> {
+            for (var i = 0; i < OPERATIONS; i++) {
+                results[i & mask] = in[i & mask].plus(in[(i + 1) & mask]);
+            }
+        });
+        single("minus", () -> {
+            for (var i = 0; i < OPERATIONS; i++) {
+                results[i & mask] = in[i & mask].minus(in[(i + 1) & mask]);
+            }
+        });
+        single("timesScalar", () -> {
+            for (var i = 0; i < OPERATIONS; i++) {
+                results[i & mask] = in[i & mask].times(0.75);
+            }
+        });
+        single("timesQuaternion", () -> {
+            for (var i = 0; i < OPERATIONS; i++) {
+                results[i & mask] = in[i & mask].times(in[(i + 1) & mask]);
+            }
+        });
+        single("norm", () -> {
+            var sum = 0.0;
+            for (var i = 0; i < OPERATIONS; i++) {
+                sum += in[i & mask].norm();
+            }
+            doubleResult += sum;
+        });
+        single("normalized", () -> {
+            for (var i = 0; i < OPERATIONS; i++) {
+                results[i & mask] = in[i & mask].normalized();
+            }
+        });
+        single("conjugate", () -> {
+            for (var i = 0; i < OPERATIONS; i++) {
+                results[i & mask] = in[i & mask].conjugate();
+            }
+        });
+        single("inverse", () -> {
+            for (var i = 0; i < OPERATIONS; i++) {
+                results[i & mask] = in[i & mask].inverse();
+            }
+        });
+        single("exp", () -> {
+            for (var i = 0; i < OPERATIONS; i++) {
+                results[i & mask] = in[i & mask].exp();
+            }
+        });
+        single("log", () -> {
+            for (var i = 0; i < OPERATIONS; i++) {
+                results[i & mask] = in[i & mask].log();
+            }
+        });
+        single("pow", () -> {
+            for (var i = 0; i < OPERATIONS; i++) {
+                results[i & mask] = in[i & mask].pow(0.5);
+            }
+        });
+        single("coefficients", () -> {
+            for (var i = 0; i < OPERATIONS; i++) {
+                results[i & mask] = in[i & mask].coefficients();
+            }
+        });
+        single("writeTo", () -> {
+            for (var i = 0; i < OPERATIONS; i++) {
+                in[i & mask].writeTo(doubles, 0);
+            }
+        });
+        single("rotate", () -> {
+            for (var i = 0; i < OPERATIONS; i++) {
+                in[i & mask].rotate(point, point);
+            }
+        });
+
+        single("chained", () -> {
+            for (var i = 0; i < OPERATIONS; i++) {
+                results[i & mask] = in[i & mask].plus(in[(i + 1) & mask]).minus(in[(i + 2) & mask])
+                        .times(0.75).normalized();
+            }
+        });
+        single("chainedMutable", () -> {
+            for (var i = 0; i < OPERATIONS; i++) {
+                results[i & mask] = accumulator.set(in[i & mask]).addInPlace(in[(i + 1) & mask])
+                        .subInPlace(in[(i + 2) & mask]).scaleInPlace(0.75).normalizeInPlace().freeze();
+            }
+        });
+        var expression = QuaternionExpression.start().plus(in[1]).minus(in[2]).times(0.75).normalized();
+        single("chainedFused", () -> {
+            for (var i = 0; i < OPERATIONS; i++) {
+                results[i & mask] = expression.apply(in[i & mask]);
+            }
+        });
+        single("chainedProducts", () -> {
+            for (var i = 0; i < OPERATIONS; i++) {
+                results[i & mask] = in[i & mask].times(in[(i + 1) & mask]).times(in[(i + 2) & mask].inverse());
+            }
+        });
+
+        var x = new QuaternionArray(BATCH_SIZE);
+        var y = new QuaternionArray(BATCH_SIZE);
+        var dest = new QuaternionArray(BATCH_SIZE);
+        var norms = new double[BATCH_SIZE];
+        var records = new Quaternion[BATCH_SIZE];
+        for (var i = 0; i < BATCH_SIZE; i++) {
+            records[i] = in[i & mask];
+            x.set(i, in[i & mask]);
+            y.set(i, in[(i + 1) & mask]);
+        }
+        var scalar = QuaternionKernels.scalar();
+        var preferred = QuaternionKernels.preferred();
+
+        batch("batchRecordsNormalized", () -> {
+            for (var i = 0; i < BATCH_SIZE; i++) {
+                records[i] = records[i].normalized();
+            }
+        });
+        batch("batchPlus", () -> scalar.plus(x, y, dest));
+        batch("batchTimes", () -> scalar.times(x, 0.75, dest));
+        batch("batchNorm", () -> scalar.norm(x, norms));
+        batch("batchNormalized", () -> scalar.normalized(x, dest));
+        batch("batchInverse", () -> x.inverse(dest));
+        batch("batchChained", () -> {
+            x.plus(y, dest);
+            dest.minus(y, dest);
+            dest.times(0.75, dest);
+            dest.normalized(dest);
+        });
+        batch("batchChainedFused", () -> expression.apply(x, dest));
+        batch("batchPreferredPlus", () -> preferred.plus(x, y, dest));
+        batch("batchPreferredNormalized", () -> preferred.normalized(x, dest));
+        batch("batchParallelSum", () -> results[0] = QuaternionReductions.sum(x));
+    }
+
+    // Measures one operation, applied OPERATIONS times per round. Each
+    // benchmark passes its own loop, rather than one operation for a shared
+    // loop to call, so that the operation is inlined into a loop of its own
+    // instead of being called through an interface from a megamorphic site.
+    private static void single(String name, Runnable round) {
+        measure(name, OPERATIONS, round);
+    }
+
+    // Measures one pass over a batch of BATCH_SIZE quaternions, reported per
+    // quaternion.
+    private static void batch(String name, Runnable pass) {
+        measure(name, BATCH_SIZE * 20L, () -> {
+            for (var i = 0; i < 20; i++) {
+                pass.run();
+            }
+        });
+    }
+
+    private static void measure(String name, long operationsPerRound, Runnable round) {
+        if (!name.contains(filter)) {
+            return;
+        }
+        for (var i = 0; i < WARMUP_ROUNDS; i++) {
+            round.run();
+        }
+        var allocatedBefore = threads.getCurrentThreadAllocatedBytes();
+        var start = System.nanoTime();
+        for (var i = 0; i < MEASURED_ROUNDS; i++) {
+            round.run();
+        }
+        var elapsed = System.nanoTime() - start;
+        var allocated = threads.getCurrentThreadAllocatedBytes() - allocatedBefore;
+        var operations = (double) operationsPerRound * MEASURED_ROUNDS;
+        System.out.printf("%-28s %12.3f %12.1f%n", name, elapsed / operations, allocated / operations);
+    }
+}
@@ -0,0 +1,158 @@
+import java.nio.BufferOverflowException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.DoubleBuffer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Bulk export and import of quaternions to and from primitive storage: double
+ * arrays, DoubleBuffers and ByteBuffers (in the buffer's byte order). Each
+ * quaternion takes four consecutive doubles a, b, c, d. Nothing is ever boxed,
+ * so this is the path to use for serialization or for filling staging buffers,
+ * rather than Quaternion.coefficients().
+ *
+ * Space is checked before anything is written or read, and buffer positions
+ * are only moved once every quaternion has been read, so a call that throws
+ * (for instance on a NaN coefficient) leaves its array or buffer unchanged.
+ */
+public final class QuaternionBuffers {
+
+    private QuaternionBuffers() {
+    }
+
+    public static void writeAll(Collection<Quaternion> quaternions, double[] dest, int offset) {
+        checkRange(dest.length, offset, 4L * quaternions.size());
+        for (var q : quaternions) {
+            q.writeTo(dest, offset);
+            offset += 4;
+        }
+    }
+
+    public static void writeAll(Collection<Quaternion> quaternions, DoubleBuffer dest) {
+        if (dest.remaining() < 4L * quaternions.size()) {
+            throw new BufferOverflowException();
+        }
+        for (var q : quaternions) {
+            q.writeTo(dest);
+        }
+    }
+
+    public static void writeAll(Collection<Quaternion> quaternions, ByteBuffer dest) {
+        if (dest.remaining() < 4L * Double.BYTES * quaternions.size()) {
+            throw new BufferOverflowException();
+        }
+        for (var q : quaternions) {
+            q.writeTo(dest);
+        }
+    }
+
+    public static void writeAll(QuaternionArray quaternions, double[] dest, int offset) {
+        checkRange(dest.length, offset, 4L * quaternions.length());
+        for (var i = 0; i < quaternions.length(); i++) {
+            dest[offset++] = quaternions.a[i];
+            dest[offset++] = quaternions.b[i];
+            dest[offset++] = quaternions.c[i];
+            dest[offset++] = quaternions.d[i];
+        }
+    }
+
+    public static void writeAll(QuaternionArray quaternions, DoubleBuffer dest) {
+        if (dest.remaining() < 4L * quaternions.length()) {
+            throw new BufferOverflowException();
+        }
+        for (var i = 0; i < quaternions.length(); i++) {
+            dest.put(quaternions.a[i]).put(quaternions.b[i]).put(quaternions.c[i]).put(quaternions.d[i]);
+        }
+    }
+
+    public static void writeAll(QuaternionArray quaternions, ByteBuffer dest) {
+        if (dest.remaining() < 4L * Double.BYTES * quaternions.length()) {
+            throw new BufferOverflowException();
+        }
+        for (var i = 0; i < quaternions.length(); i++) {
+            dest.putDouble(quaternions.a[i]).putDouble(quaternions.b[i])
+                    .putDouble(quaternions.c[i]).putDouble(quaternions.d[i]);
+        }
+    }
+
+    public static List<Quaternion> readAll(double[] src, int offset, int count) {
+        checkRange(src.length, offset, 4L * count);
+        var quaternions = new ArrayList<Quaternion>(count);
+        for (var i = 0; i < count; i++) {
+            quaternions.add(Quaternion.readFrom(src, offset + 4 * i));
+        }
+        return quaternions;
+    }
+
+    public static List<Quaternion> readAll(DoubleBuffer src, int count) {
+        if (count < 0 || src.remaining() < 4L * count) {
+            throw new BufferUnderflowException();
+        }
+        var quaternions = new ArrayList<Quaternion>(count);
+        var position = src.position();
+        for (var i = 0; i < count; i++) {
+            quaternions.add(Quaternion.readFrom(src, position));
+            position += 4;
+        }
+        src.position(position);
+        return quaternions;
+    }
+
+    public static List<Quaternion> readAll(ByteBuffer src, int count) {
+        if (count < 0 || src.remaining() < 4L * Double.BYTES * count) {
+            throw new BufferUnderflowException();
+        }
+        var quaternions = new ArrayList<Quaternion>(count);
+        var position = src.position();
+        for (var i = 0; i < count; i++) {
+            quaternions.add(Quaternion.readFrom(src, position));
+            position += 4 * Double.BYTES;
+        }
+        src.position(position);
+        return quaternions;
+    }
+
+    // Fills all of dest. Unlike the methods that return records, these do not
+    // reject NaN coefficients until an element is read with get.
+    public static void readAll(double[] src, int offset, QuaternionArray dest) {
+        checkRange(src.length, offset, 4L * dest.length());
+        for (var i = 0; i < dest.length(); i++) {
+            dest.a[i] = src[offset++];
+            dest.b[i] = src[offset++];
+            dest.c[i] = src[offset++];
+            dest.d[i] = src[offset++];
+        }
+    }
+
+    public static void readAll(DoubleBuffer src, QuaternionArray dest) {
+        if (src.remaining() < 4L * dest.length()) {
+            throw new BufferUnderflowException();
+        }
+        for (var i = 0; i < dest.length(); i++) {
+            dest.a[i] = src.get();
+            dest.b[i] = src.get();
+            dest.c[i] = src.get();
+            dest.d[i] = src.get();
+        }
+    }
+
+    public static void readAll(ByteBuffer src, QuaternionArray dest) {
+        if (src.remaining() < 4L * Double.BYTES * dest.length()) {
+            throw new BufferUnderflowException();
+        }
+        for (var i = 0; i < dest.length(); i++) {
+            dest.a[i] = src.getDouble();
+            dest.b[i] = src.getDouble();
+            dest.c[i] = src.getDouble();
+            dest.d[i] = src.getDouble();
+        }
+    }
+
+    private static void checkRange(int arrayLength, int offset, long count) {
+        if (count < 0 || offset < 0 || offset > arrayLength - count) {
+            throw new IndexOutOfBoundsException();
+        }
+    }
+}
@@ -0,0 +1,90 @@
+import java.nio.BufferOverflowException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.DoubleBuffer;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class QuaternionBuffersTest {
+
+    private final List<Quaternion> quaternions = List.of(
+            new Quaternion(1, 3, 5, 2),
+            new Quaternion(60, -20, 9, 12),
+            new Quaternion(0.5, -0.25, 3.75, 100));
+
+    @Test
+    public void testDoubleArrays() {
+        var dest = new double[14];
+        QuaternionBuffers.writeAll(quaternions, dest, 1);
+        assertEquals(0.0, dest[0]);
+        assertEquals(60.0, dest[5]);
+        assertEquals(100.0, dest[12]);
+        assertEquals(quaternions, QuaternionBuffers.readAll(dest, 1, 3));
+
+        var array = new QuaternionArray(3);
+        QuaternionBuffers.readAll(dest, 1, array);
+        assertEquals(quaternions, List.of(array.toArray()));
+        var copy = new double[14];
+        QuaternionBuffers.writeAll(array, copy, 1);
+        assertArrayEquals(dest, copy);
+
+        assertThrows(IndexOutOfBoundsException.class, () -> QuaternionBuffers.writeAll(quaternions, dest, 3));
+        assertThrows(IndexOutOfBoundsException.class, () -> QuaternionBuffers.readAll(dest, 0, 4));
+    }
+
+    @Test
+    public void testDoubleBuffers() {
+        var dest = DoubleBuffer.allocate(12);
+        QuaternionBuffers.writeAll(quaternions, dest);
+        assertEquals(quaternions, QuaternionBuffers.readAll(dest.flip(), 3));
+
+        var array = new QuaternionArray(3);
+        QuaternionBuffers.readAll(dest.rewind(), array);
+        QuaternionBuffers.writeAll(array, dest.clear());
+        assertEquals(quaternions, QuaternionBuffers.readAll(dest.flip(), 3));
+
+        assertThrows(BufferOverflowException.class,
+                () -> QuaternionBuffers.writeAll(quaternions, DoubleBuffer.allocate(11)));
+        assertThrows(BufferUnderflowException.class, () -> QuaternionBuffers.readAll(dest.rewind(), 4));
+        assertEquals(0, dest.position());
+    }
+
+    @Test
+    public void testByteBuffers() {
+        var dest = ByteBuffer.allocateDirect(96);
+        QuaternionBuffers.writeAll(quaternions, dest);
+        assertEquals(quaternions, QuaternionBuffers.readAll(dest.flip(), 3));
+
+        var array = new QuaternionArray(3);
+        QuaternionBuffers.readAll(dest.rewind(), array);
+        QuaternionBuffers.writeAll(array, dest.clear());
+        assertEquals(quaternions, QuaternionBuffers.readAll(dest.flip(), 3));
+
+        assertThrows(BufferOverflowException.class,
+                () -> QuaternionBuffers.writeAll(quaternions, ByteBuffer.allocate(95)));
+        assertThrows(BufferUnderflowException.class,
+                () -> QuaternionBuffers.readAll(dest.rewind(), new QuaternionArray(4)));
+    }
+
+    @Test
+    public void testFailedReadKeepsPosition() {
+        var doubles = DoubleBuffer.allocate(12);
+        QuaternionBuffers.writeAll(quaternions, doubles);
+        doubles.put(9, Double.NaN).flip();
+        assertThrows(IllegalArgumentException.class, () -> QuaternionBuffers.readAll(doubles, 3));
+        assertEquals(0, doubles.position());
+        assertEquals(quaternions.subList(0, 2), QuaternionBuffers.readAll(doubles, 2));
+        assertEquals(8, doubles.position());
+
+        var bytes = ByteBuffer.allocate(96);
+        QuaternionBuffers.writeAll(quaternions, bytes);
+        bytes.putDouble(72, Double.NaN).flip();
+        assertThrows(IllegalArgumentException.class, () -> QuaternionBuffers.readAll(bytes, 3));
+        assertEquals(0, bytes.position());
+        assertEquals(quaternions.subList(0, 2), QuaternionBuffers.readAll(bytes, 2));
+        assertEquals(64, bytes.position());
+    }
+}
@@ -0,0 +1,187 @@
+/**
+ * Packs unit quaternions into 32 or 64 bits using the "smallest three"
+ * encoding. A unit quaternion has one component of magnitude at least 1/2, so
+ * we drop the largest one (flipping the sign of the whole quaternion if needed
+ * to make it positive, which leaves the orientation unchanged), quantize the
+ * other three, which must lie in [-1/sqrt(2), 1/sqrt(2)], and record which one
+ * was dropped in two bits. Decoding recovers the dropped component from the
+ * unit length.
+ *
+ * The 32-bit form uses 10 bits per component and the 64-bit form 20 bits. The
+ * rounding error is at most half a quantization step in each of the three
+ * stored components; the recomputed one can add at most sqrt(3) times that
+ * again, and the rotation angle is twice the angle between the quaternions,
+ * which gives the MAX_ANGULAR_ERROR bounds below (in radians).
+ *
+ * Quaternions are normalized before encoding, so only the orientation is kept
+ * and decoding always gives a unit quaternion. The zero quaternion cannot be
+ * encoded.
+ */
+public final class QuaternionCodec {
+
+    private static final double RANGE = Math.sqrt(0.5);
+    private static final int BITS_32 = 10;
+    private static final int BITS_64 = 20;
+
+    // About 0.27 degrees
+    public static final double MAX_ANGULAR_ERROR_32 = maxAngularError(BITS_32);
+    // About 0.00027 degrees
+    public static final double MAX_ANGULAR_ERROR_64 = maxAngularError(BITS_64);
+
+    private QuaternionCodec() {
+    }
+
+    public static int encode32(Quaternion q) {
+        return (int) encode(q.a(), q.b(), q.c(), q.d(), BITS_32);
+    }
+
+    public static long encode64(Quaternion q) {
+        return encode(q.a(), q.b(), q.c(), q.d(), BITS_64);
+    }
+
+    public static Quaternion decode32(int packed) {
+        return decode(packed & 0xFFFFFFFFL, BITS_32);
+    }
+
+    public static Quaternion decode64(long packed) {
+        return decode(packed, BITS_64);
+    }
+
+    // Encodes src[i] into dest[destOffset + i] for every i.
+    public static void encode32(QuaternionArray src, int[] dest, int destOffset) {
+        checkRange(dest.length, destOffset, src.length());
+        for (var i = 0; i < src.length(); i++) {
+            dest[destOffset + i] = (int) encode(src.a[i], src.b[i], src.c[i], src.d[i], BITS_32);
+        }
+    }
+
+    public static void encode64(QuaternionArray src, long[] dest, int destOffset) {
+        checkRange(dest.length, destOffset, src.length());
+        for (var i = 0; i < src.length(); i++) {
+            dest[destOffset + i] = encode(src.a[i], src.b[i], src.c[i], src.d[i], BITS_64);
+        }
+    }
+
+    // Decodes src[srcOffset + i] into dest[i] for every i.
+    public static void decode32(int[] src, int srcOffset, QuaternionArray dest) {
+        checkRange(src.length, srcOffset, dest.length());
+        for (var i = 0; i < dest.length(); i++) {
+            decode(src[srcOffset + i] & 0xFFFFFFFFL, BITS_32, dest, i);
+        }
+    }
+
+    public static void decode64(long[] src, int srcOffset, QuaternionArray dest) {
+        checkRange(src.length, srcOffset, dest.length());
+        for (var i = 0; i < dest.length(); i++) {
+            decode(src[srcOffset + i], BITS_64, dest, i);
+        }
+    }
+
+    private static long encode(double a, double b, double c, double d, int bits) {
+        double norm = Math.sqrt(a * a + b * b + c * c + d * d);
+        if (!(norm > 0) || Double.isInfinite(norm)) {
+            throw new IllegalArgumentException("Only nonzero, finite quaternions can be encoded");
+        }
+        int largest = 0;
+        double max = Math.abs(a);
+        if (Math.abs(b) > max) {
+            largest = 1;
+            max = Math.abs(b);
+        }
+        if (Math.abs(c) > max) {
+            largest = 2;
+            max = Math.abs(c);
+        }
+        if (Math.abs(d) > max) {
+            largest = 3;
+        }
+        double dropped = largest == 0 ? a : largest == 1 ? b : largest == 2 ? c : d;
+        // Normalize, and negate if necessary so the dropped component is positive.
+        double scale = (dropped < 0 ? -1 : 1) / norm;
+        long packed = largest;
+        if (largest != 0) {
+            packed = (packed << bits) | quantize(a * scale, bits);
+        }
+        if (largest != 1) {
+            packed = (packed << bits) | quantize(b * scale, bits);
+        }
+        if (largest != 2) {
+            packed = (packed << bits) | quantize(c * scale, bits);
+        }
+        if (largest != 3) {
+            packed = (packed << bits) | quantize(d * scale, bits);
+        }
+        return packed;
+    }
+
+    // Decodes straight into a record, with nothing else allocated.
+    private static Quaternion decode(long packed, int bits) {
+        double x = stored(packed, bits, 0);
+        double y = stored(packed, bits, 1);
+        double z = stored(packed, bits, 2);
+        double w = dropped(x, y, z);
+        return switch (largest(packed, bits)) {
+            case 0 -> new Quaternion(w, x, y, z);
+            case 1 -> new Quaternion(x, w, y, z);
+            case 2 -> new Quaternion(x, y, w, z);
+            default -> new Quaternion(x, y, z, w);
+        };
+    }
+
+    private static void decode(long packed, int bits, QuaternionArray dest, int i) {
+        double x = stored(packed, bits, 0);
+        double y = stored(packed, bits, 1);
+        double z = stored(packed, bits, 2);
+        double w = dropped(x, y, z);
+        switch (largest(packed, bits)) {
+            case 0 -> store(dest, i, w, x, y, z);
+            case 1 -> store(dest, i, x, w, y, z);
+            case 2 -> store(dest, i, x, y, w, z);
+            default -> store(dest, i, x, y, z, w);
+        }
+    }
+
+    // Which component was dropped.
+    private static int largest(long packed, int bits) {
+        return (int) (packed >>> (3 * bits)) & 3;
+    }
+
+    // The nth of the three stored components, in order.
+    private static double stored(long packed, int bits, int n) {
+        long mask = (1L << bits) - 1;
+        return dequantize((packed >>> ((2 - n) * bits)) & mask, bits);
+    }
+
+    // Recovers the dropped component from the unit length.
+    private static double dropped(double x, double y, double z) {
+        return Math.sqrt(Math.max(0, 1 - x * x - y * y - z * z));
+    }
+
+    private static void store(QuaternionArray dest, int i, double a, double b, double c, double d) {
+        dest.a[i] = a;
+        dest.b[i] = b;
+        dest.c[i] = c;
+        dest.d[i] = d;
+    }
+
+    private static long quantize(double x, int bits) {
+        long max = (1L << bits) - 1;
+        long q = Math.round((x + RANGE) / (2 * RANGE) * max);
+        return Math.min(max, Math.max(0, q));
+    }
+
+    private static double dequantize(long q, int bits) {
+        return q * (2 * RANGE) / ((1L << bits) - 1) - RANGE;
+    }
+
+    private static double maxAngularError(int bits) {
+        double step = 2 * RANGE / ((1L << bits) - 1);
+        return 2 * Math.sqrt(3) * step;
+    }
+
+    private static void checkRange(int arrayLength, int offset, int count) {
+        if (offset < 0 || offset > arrayLength - count) {
+            throw new IndexOutOfBoundsException();
+        }
+    }
+}
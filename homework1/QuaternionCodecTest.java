@@ -0,0 +1,86 @@
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class QuaternionCodecTest {
+
+    // The angle of the rotation taking orientation p to orientation q
+    private static double angleBetween(Quaternion p, Quaternion q) {
+        var dot = Math.abs(p.a() * q.a() + p.b() * q.b() + p.c() * q.c() + p.d() * q.d());
+        return 2 * Math.acos(Math.min(1, dot));
+    }
+
+    private static Quaternion randomUnit(Random random) {
+        return new Quaternion(random.nextGaussian(), random.nextGaussian(),
+                random.nextGaussian(), random.nextGaussian()).normalized();
+    }
+
+    @Test
+    public void testBasisRoundTrips() {
+        for (var q : new Quaternion[] { new Quaternion(1, 0, 0, 0), Quaternion.I, Quaternion.J, Quaternion.K }) {
+            assertTrue(angleBetween(q, QuaternionCodec.decode32(QuaternionCodec.encode32(q))) < 1e-2);
+            assertTrue(angleBetween(q, QuaternionCodec.decode64(QuaternionCodec.encode64(q))) < 1e-5);
+        }
+    }
+
+    @Test
+    public void testAngularErrorBounds() {
+        var random = new Random(2120);
+        var worst32 = 0.0;
+        var worst64 = 0.0;
+        for (var i = 0; i < 200_000; i++) {
+            var q = randomUnit(random);
+            var q32 = QuaternionCodec.decode32(QuaternionCodec.encode32(q));
+            var q64 = QuaternionCodec.decode64(QuaternionCodec.encode64(q));
+            assertEquals(1.0, q32.norm(), 1e-12);
+            assertEquals(1.0, q64.norm(), 1e-12);
+            worst32 = Math.max(worst32, angleBetween(q, q32));
+            worst64 = Math.max(worst64, angleBetween(q, q64));
+        }
+        assertTrue(worst32 <= QuaternionCodec.MAX_ANGULAR_ERROR_32);
+        assertTrue(worst64 <= QuaternionCodec.MAX_ANGULAR_ERROR_64);
+        assertTrue(QuaternionCodec.MAX_ANGULAR_ERROR_32 < Math.toRadians(0.3));
+        assertTrue(QuaternionCodec.MAX_ANGULAR_ERROR_64 < Math.toRadians(0.0003));
+    }
+
+    @Test
+    public void testNonUnitAndNegatedQuaternionsKeepTheirOrientation() {
+        var q = new Quaternion(-3, 1, -0.5, 2);
+        assertTrue(angleBetween(q.normalized(), QuaternionCodec.decode64(QuaternionCodec.encode64(q))) < 1e-5);
+        assertEquals(QuaternionCodec.encode32(q), QuaternionCodec.encode32(q.times(-7)));
+    }
+
+    @Test
+    public void testBulkMatchesSingle() {
+        var random = new Random(2120);
+        var src = new QuaternionArray(100);
+        for (var i = 0; i < src.length(); i++) {
+            src.set(i, randomUnit(random));
+        }
+        var ints = new int[102];
+        var longs = new long[102];
+        QuaternionCodec.encode32(src, ints, 2);
+        QuaternionCodec.encode64(src, longs, 2);
+        var dest32 = new QuaternionArray(src.length());
+        var dest64 = new QuaternionArray(src.length());
+        QuaternionCodec.decode32(ints, 2, dest32);
+        QuaternionCodec.decode64(longs, 2, dest64);
+        for (var i = 0; i < src.length(); i++) {
+            assertEquals(QuaternionCodec.encode32(src.get(i)), ints[i + 2]);
+            assertEquals(QuaternionCodec.encode64(src.get(i)), longs[i + 2]);
+            assertEquals(QuaternionCodec.decode32(ints[i + 2]), dest32.get(i));
+            assertEquals(QuaternionCodec.decode64(longs[i + 2]), dest64.get(i));
+        }
+        assertThrows(IndexOutOfBoundsException.class, () -> QuaternionCodec.encode32(src, ints, 3));
+        assertThrows(IndexOutOfBoundsException.class, () -> QuaternionCodec.decode64(longs, -1, dest64));
+    }
+
+    @Test
+    public void testZeroQuaternionCannotBeEncoded() {
+        assertThrows(IllegalArgumentException.class, () -> QuaternionCodec.encode32(Quaternion.ZERO));
+        assertThrows(IllegalArgumentException.class,
+                () -> QuaternionCodec.encode64(new QuaternionArray(1), new long[1], 0));
+    }
+}
@@ -0,0 +1,127 @@
+import java.util.Arrays;
+
+/**
+ * A lazily evaluated chain of Quaternion operations. Building an expression
+ * only records the steps; apply then runs the whole chain in one fused pass,
+ * keeping the intermediate value in one MutableQuaternion, so that
+ *
+ *     QuaternionExpression.start().plus(b).minus(c).times(k).normalized()
+ *
+ * creates no intermediate records, and makes a single pass over memory when
+ * applied to a QuaternionArray. Each step does exactly the same floating point
+ * operations as the corresponding Quaternion method, so the results are
+ * bit-identical to the eager chain. The one difference is that a NaN produced
+ * part way through is only rejected at the end, when apply(Quaternion) turns
+ * the result into a record. Batch results are not validated at all: like any
+ * QuaternionArray lanes, they may hold NaN until an element is read with get.
+ *
+ * Expressions are immutable and can be reused and shared between threads.
+ */
+public final class QuaternionExpression {
+
+    private static final int PLUS = 0;
+    private static final int MINUS = 1;
+    private static final int SCALE = 2;
+    private static final int MULTIPLY = 3;
+    private static final int NORMALIZE = 4;
+    private static final int CONJUGATE = 5;
+    private static final int INVERT = 6;
+
+    private static final QuaternionExpression IDENTITY = new QuaternionExpression(new int[0], new double[0]);
+
+    // The operation of each step, and four operand slots per step (only the
+    // first is used by SCALE, and none by the unary steps).
+    private final int[] steps;
+    private final double[] operands;
+
+    private QuaternionExpression(int[] steps, double[] operands) {
+        this.steps = steps;
+        this.operands = operands;
+    }
+
+    // The empty expression, which returns its input unchanged.
+    public static QuaternionExpression start() {
+        return IDENTITY;
+    }
+
+    public QuaternionExpression plus(Quaternion q) {
+        return then(PLUS, q.a(), q.b(), q.c(), q.d());
+    }
+
+    public QuaternionExpression minus(Quaternion q) {
+        return then(MINUS, q.a(), q.b(), q.c(), q.d());
+    }
+
+    public QuaternionExpression times(double k) {
+        return then(SCALE, k, 0, 0, 0);
+    }
+
+    // Multiplies on the right, as in current.times(q).
+    public QuaternionExpression times(Quaternion q) {
+        return then(MULTIPLY, q.a(), q.b(), q.c(), q.d());
+    }
+
+    public QuaternionExpression normalized() {
+        return then(NORMALIZE, 0, 0, 0, 0);
+    }
+
+    public QuaternionExpression conjugate() {
+        return then(CONJUGATE, 0, 0, 0, 0);
+    }
+
+    public QuaternionExpression inverse() {
+        return then(INVERT, 0, 0, 0, 0);
+    }
+
+    public int length() {
+        return steps.length;
+    }
+
+    private QuaternionExpression then(int step, double a, double b, double c, double d) {
+        var newSteps = Arrays.copyOf(steps, steps.length + 1);
+        newSteps[steps.length] = step;
+        var newOperands = Arrays.copyOf(operands, operands.length + 4);
+        newOperands[operands.length] = a;
+        newOperands[operands.length + 1] = b;
+        newOperands[operands.length + 2] = c;
+        newOperands[operands.length + 3] = d;
+        return new QuaternionExpression(newSteps, newOperands);
+    }
+
+    public Quaternion apply(Quaternion q) {
+        return evaluate(new MutableQuaternion(q)).freeze();
+    }
+
+    // Applies the expression to every element of src, writing the results to
+    // dest, which may be src itself. NaN results are stored as they are.
+    public void apply(QuaternionArray src, QuaternionArray dest) {
+        src.checkLength(dest);
+        var m = new MutableQuaternion();
+        for (var i = 0; i < src.length(); i++) {
+            evaluate(m.set(src.a[i], src.b[i], src.c[i], src.d[i]));
+            dest.a[i] = m.a();
+            dest.b[i] = m.b();
+            dest.c[i] = m.c();
+            dest.d[i] = m.d();
+        }
+    }
+
+    // The in-place MutableQuaternion operations do the same arithmetic as the
+    // Quaternion methods, step for step.
+    private MutableQuaternion evaluate(MutableQuaternion m) {
+        for (var s = 0; s < steps.length; s++) {
+            double qa = operands[4 * s], qb = operands[4 * s + 1];
+            double qc = operands[4 * s + 2], qd = operands[4 * s + 3];
+            switch (steps[s]) {
+                case PLUS -> m.addInPlace(qa, qb, qc, qd);
+                case MINUS -> m.subInPlace(qa, qb, qc, qd);
+                case SCALE -> m.scaleInPlace(qa);
+                case MULTIPLY -> m.multiplyInPlace(qa, qb, qc, qd);
+                case NORMALIZE -> m.normalizeInPlace();
+                case CONJUGATE -> m.conjugateInPlace();
+                default -> m.invertInPlace();
+            }
+        }
+        return m;
+    }
+}
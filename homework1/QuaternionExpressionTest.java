@@ -0,0 +1,79 @@
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class QuaternionExpressionTest {
+
+    private final Quaternion b = new Quaternion(-2, 2, 8, -1);
+    private final Quaternion c = new Quaternion(0.5, -0.25, 3.75, 100);
+
+    @Test
+    public void testEmptyExpressionIsIdentity() {
+        var q = new Quaternion(1, 3, 5, 2);
+        assertEquals(0, QuaternionExpression.start().length());
+        assertEquals(q, QuaternionExpression.start().apply(q));
+    }
+
+    @Test
+    public void testMatchesEagerChainsExactly() {
+        var expression = QuaternionExpression.start().plus(b).minus(c).times(0.3).normalized();
+        var everything = expression.times(b).conjugate().inverse().plus(c);
+        assertEquals(4, expression.length());
+        assertEquals(8, everything.length());
+        var random = new Random(2120);
+        for (var trial = 0; trial < 1000; trial++) {
+            var a = new Quaternion(random.nextGaussian(), random.nextGaussian(),
+                    random.nextGaussian(), random.nextGaussian());
+            var eager = a.plus(b).minus(c).times(0.3).normalized();
+            assertEquals(eager, expression.apply(a));
+            assertEquals(eager.times(b).conjugate().inverse().plus(c), everything.apply(a));
+        }
+    }
+
+    @Test
+    public void testExpressionsAreImmutable() {
+        var base = QuaternionExpression.start().plus(Quaternion.I);
+        var longer = base.times(2);
+        assertEquals(new Quaternion(0, 1, 0, 0), base.apply(Quaternion.ZERO));
+        assertEquals(new Quaternion(0, 2, 0, 0), longer.apply(Quaternion.ZERO));
+    }
+
+    @Test
+    public void testBatchMatchesSingle() {
+        var random = new Random(2120);
+        var src = new QuaternionArray(100);
+        for (var i = 0; i < src.length(); i++) {
+            src.set(i, new Quaternion(random.nextGaussian(), random.nextGaussian(),
+                    random.nextGaussian(), random.nextGaussian()));
+        }
+        var expression = QuaternionExpression.start().plus(b).times(c).normalized().inverse();
+        var dest = new QuaternionArray(src.length());
+        expression.apply(src, dest);
+        for (var i = 0; i < src.length(); i++) {
+            assertEquals(expression.apply(src.get(i)), dest.get(i));
+        }
+        expression.apply(src, src);
+        for (var i = 0; i < src.length(); i++) {
+            assertEquals(dest.get(i), src.get(i));
+        }
+        assertThrows(IllegalArgumentException.class, () -> expression.apply(src, new QuaternionArray(3)));
+    }
+
+    @Test
+    public void testNaNIsRejectedAtTheEnd() {
+        var expression = QuaternionExpression.start().minus(Quaternion.I).normalized().plus(Quaternion.J);
+        assertThrows(IllegalArgumentException.class, () -> expression.apply(Quaternion.I));
+
+        // Batch results are stored unvalidated, and only rejected by get
+        var src = new QuaternionArray(2);
+        src.set(0, Quaternion.I);
+        src.set(1, Quaternion.J);
+        var dest = new QuaternionArray(2);
+        expression.apply(src, dest);
+        assertTrue(Double.isNaN(dest.a[0]));
+        assertThrows(IllegalArgumentException.class, () -> dest.get(0));
+        assertEquals(Quaternion.J.minus(Quaternion.I).normalized().plus(Quaternion.J), dest.get(1));
+    }
+}
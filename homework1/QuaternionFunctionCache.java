@@ -0,0 +1,99 @@
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A bounded memo cache for Quaternion.exp(), log() and pow(), for workloads
+ * that keep applying them to a small set of recurring operands. Entries are
+ * keyed on the value of the quaternion (and exponent), and once the cache is
+ * full the least recently used entry is evicted.
+ *
+ * The hit and miss counters are there to check that the cache pays for
+ * itself: a lookup is a hash of five doubles, so it only wins when the hit
+ * rate is high. The cache is safe to share between threads; the math itself
+ * is done outside the lock.
+ */
+public class QuaternionFunctionCache {
+
+    private enum Function {
+        EXP, LOG, POW
+    }
+
+    private record Key(Function function, Quaternion q, double t) {
+    }
+
+    private final int maxSize;
+    private final Map<Key, Quaternion> entries;
+    private long hits = 0;
+    private long misses = 0;
+
+    public QuaternionFunctionCache(int maxSize) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("Cache size must be positive");
+        }
+        this.maxSize = maxSize;
+        // An access-ordered LinkedHashMap keeps the least recently used entry
+        // first, which is exactly the one to evict.
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Quaternion> eldest) {
+                return size() > QuaternionFunctionCache.this.maxSize;
+            }
+        };
+    }
+
+    public Quaternion exp(Quaternion q) {
+        var key = new Key(Function.EXP, q, 0);
+        var result = lookup(key);
+        return result != null ? result : store(key, q.exp());
+    }
+
+    public Quaternion log(Quaternion q) {
+        var key = new Key(Function.LOG, q, 0);
+        var result = lookup(key);
+        return result != null ? result : store(key, q.log());
+    }
+
+    public Quaternion pow(Quaternion q, double t) {
+        var key = new Key(Function.POW, q, t);
+        var result = lookup(key);
+        return result != null ? result : store(key, q.pow(t));
+    }
+
+    public synchronized long hits() {
+        return hits;
+    }
+
+    public synchronized long misses() {
+        return misses;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public int maxSize() {
+        return maxSize;
+    }
+
+    // Empties the cache and resets the counters.
+    public synchronized void clear() {
+        entries.clear();
+        hits = 0;
+        misses = 0;
+    }
+
+    private synchronized Quaternion lookup(Key key) {
+        var result = entries.get(key);
+        if (result != null) {
+            hits++;
+        } else {
+            misses++;
+        }
+        return result;
+    }
+
+    private synchronized Quaternion store(Key key, Quaternion result) {
+        entries.put(key, result);
+        return result;
+    }
+}
@@ -0,0 +1,59 @@
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class QuaternionFunctionCacheTest {
+
+    @Test
+    public void testResultsMatchUncached() {
+        var cache = new QuaternionFunctionCache(8);
+        var q = new Quaternion(1, -2, 0.5, 3);
+        assertEquals(q.exp(), cache.exp(q));
+        assertEquals(q.log(), cache.log(q));
+        assertEquals(q.pow(0.5), cache.pow(q, 0.5));
+        assertEquals(q.pow(2), cache.pow(q, 2));
+        assertEquals(4, cache.size());
+    }
+
+    @Test
+    public void testHitsAndMisses() {
+        var cache = new QuaternionFunctionCache(8);
+        var first = cache.exp(new Quaternion(0, 0.1, 0.2, 0.3));
+        assertEquals(0, cache.hits());
+        assertEquals(1, cache.misses());
+        // An equal but distinct record still hits
+        assertSame(first, cache.exp(new Quaternion(0, 0.1, 0.2, 0.3)));
+        assertEquals(1, cache.hits());
+        assertEquals(1, cache.misses());
+        // Different functions of the same operand are different entries
+        cache.log(new Quaternion(0, 0.1, 0.2, 0.3));
+        assertEquals(2, cache.misses());
+        cache.clear();
+        assertEquals(0, cache.size());
+        assertEquals(0, cache.hits());
+        assertEquals(0, cache.misses());
+    }
+
+    @Test
+    public void testLeastRecentlyUsedIsEvicted() {
+        var cache = new QuaternionFunctionCache(2);
+        assertEquals(2, cache.maxSize());
+        cache.exp(Quaternion.I);
+        cache.exp(Quaternion.J);
+        // Touch I so that J becomes the least recently used
+        cache.exp(Quaternion.I);
+        cache.exp(Quaternion.K);
+        assertEquals(2, cache.size());
+        var misses = cache.misses();
+        cache.exp(Quaternion.I);
+        assertEquals(misses, cache.misses());
+        cache.exp(Quaternion.J);
+        assertEquals(misses + 1, cache.misses());
+    }
+
+    @Test
+    public void testSizeMustBePositive() {
+        assertThrows(IllegalArgumentException.class, () -> new QuaternionFunctionCache(0));
+    }
+}
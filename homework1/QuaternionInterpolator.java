@@ -0,0 +1,123 @@
+/**
+ * Interpolates between orientations given as quaternions, either with SLERP
+ * (constant angular velocity along the great arc, which needs some trig) or
+ * with the cheaper NLERP (a straight line between the two, normalized back
+ * onto the unit sphere). Both always take the shorter of the two arcs, and
+ * SLERP falls back to NLERP when the endpoints are so close that the arc is
+ * indistinguishable from a line, which avoids dividing by a tiny sine.
+ *
+ * The endpoints do not need to be unit quaternions; they are normalized first.
+ * The batch methods work on QuaternionArrays and allocate nothing per element.
+ */
+public class QuaternionInterpolator {
+
+    public enum Mode {
+        // Spherical linear interpolation: exact, but costs an acos and three sines.
+        ACCURATE,
+        // Normalized linear interpolation: no trig, but the speed is not constant.
+        FAST
+    }
+
+    // Above this cosine of the angle between endpoints, SLERP uses NLERP instead.
+    static final double LINEAR_THRESHOLD = 0.9995;
+
+    private final Mode mode;
+
+    public QuaternionInterpolator(Mode mode) {
+        this.mode = mode;
+    }
+
+    public Mode mode() {
+        return mode;
+    }
+
+    public static Quaternion slerp(Quaternion from, Quaternion to, double t) {
+        return new QuaternionInterpolator(Mode.ACCURATE).interpolate(from, to, t);
+    }
+
+    public static Quaternion nlerp(Quaternion from, Quaternion to, double t) {
+        return new QuaternionInterpolator(Mode.FAST).interpolate(from, to, t);
+    }
+
+    public Quaternion interpolate(Quaternion from, Quaternion to, double t) {
+        var p = from.normalized();
+        var q = to.normalized();
+        double dot = p.a() * q.a() + p.b() * q.b() + p.c() * q.c() + p.d() * q.d();
+        // q and -q are the same orientation, so flip one to take the short way.
+        if (dot < 0) {
+            q = q.times(-1);
+            dot = -dot;
+        }
+        if (mode == Mode.FAST || dot > LINEAR_THRESHOLD) {
+            return p.plus(q.minus(p).times(t)).normalized();
+        }
+        double theta = Math.acos(dot);
+        double sin = Math.sin(theta);
+        return p.times(Math.sin((1 - t) * theta) / sin).plus(q.times(Math.sin(t * theta) / sin));
+    }
+
+    // Interpolates from[i] to to[i] by t[i], writing the result to dest[i].
+    public void interpolate(QuaternionArray from, QuaternionArray to, double[] t, QuaternionArray dest) {
+        from.checkLength(to);
+        from.checkLength(dest);
+        from.checkLength(t.length);
+        for (var i = 0; i < t.length; i++) {
+            interpolate(from, to, i, t[i], dest);
+        }
+    }
+
+    // Interpolates every pair from[i] to to[i] by the same t.
+    public void interpolate(QuaternionArray from, QuaternionArray to, double t, QuaternionArray dest) {
+        from.checkLength(to);
+        from.checkLength(dest);
+        for (var i = 0; i < from.length(); i++) {
+            interpolate(from, to, i, t, dest);
+        }
+    }
+
+    // The same computation as interpolate(Quaternion, Quaternion, double), done
+    // on the lanes of element i.
+    private void interpolate(QuaternionArray from, QuaternionArray to, int i, double t, QuaternionArray dest) {
+        double fromNorm = Math.sqrt(from.a[i] * from.a[i] + from.b[i] * from.b[i]
+                + from.c[i] * from.c[i] + from.d[i] * from.d[i]);
+        double pa = from.a[i] / fromNorm, pb = from.b[i] / fromNorm;
+        double pc = from.c[i] / fromNorm, pd = from.d[i] / fromNorm;
+        double toNorm = Math.sqrt(to.a[i] * to.a[i] + to.b[i] * to.b[i]
+                + to.c[i] * to.c[i] + to.d[i] * to.d[i]);
+        double qa = to.a[i] / toNorm, qb = to.b[i] / toNorm;
+        double qc = to.c[i] / toNorm, qd = to.d[i] / toNorm;
+        double dot = pa * qa + pb * qb + pc * qc + pd * qd;
+        if (dot < 0) {
+            qa = -qa;
+            qb = -qb;
+            qc = -qc;
+            qd = -qd;
+            dot = -dot;
+        }
+        double ra, rb, rc, rd;
+        if (mode == Mode.FAST || dot > LINEAR_THRESHOLD) {
+            ra = pa + (qa - pa) * t;
+            rb = pb + (qb - pb) * t;
+            rc = pc + (qc - pc) * t;
+            rd = pd + (qd - pd) * t;
+            double n = Math.sqrt(ra * ra + rb * rb + rc * rc + rd * rd);
+            ra /= n;
+            rb /= n;
+            rc /= n;
+            rd /= n;
+        } else {
+            double theta = Math.acos(dot);
+            double sin = Math.sin(theta);
+            double wp = Math.sin((1 - t) * theta) / sin;
+            double wq = Math.sin(t * theta) / sin;
+            ra = wp * pa + wq * qa;
+            rb = wp * pb + wq * qb;
+            rc = wp * pc + wq * qc;
+            rd = wp * pd + wq * qd;
+        }
+        dest.a[i] = ra;
+        dest.b[i] = rb;
+        dest.c[i] = rc;
+        dest.d[i] = rd;
+    }
+}
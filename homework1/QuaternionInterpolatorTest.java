@@ -0,0 +1,85 @@
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class QuaternionInterpolatorTest {
+
+    private static void assertClose(Quaternion expected, Quaternion actual) {
+        assertEquals(expected.a(), actual.a(), 1e-12);
+        assertEquals(expected.b(), actual.b(), 1e-12);
+        assertEquals(expected.c(), actual.c(), 1e-12);
+        assertEquals(expected.d(), actual.d(), 1e-12);
+    }
+
+    @Test
+    public void testEndpoints() {
+        var from = new Quaternion(1, 2, 3, 4);
+        var to = new Quaternion(-4, 1, 0.5, 2);
+        for (var mode : QuaternionInterpolator.Mode.values()) {
+            var interpolator = new QuaternionInterpolator(mode);
+            assertClose(from.normalized(), interpolator.interpolate(from, to, 0));
+            assertClose(to.normalized(), interpolator.interpolate(from, to, 1));
+        }
+    }
+
+    @Test
+    public void testSlerpHasConstantAngularVelocity() {
+        // Halfway between no rotation and a half turn about z is a quarter turn
+        var quarterTurn = new Quaternion(Math.cos(Math.PI / 4), 0, 0, Math.sin(Math.PI / 4));
+        assertClose(quarterTurn, QuaternionInterpolator.slerp(new Quaternion(1, 0, 0, 0), Quaternion.K, 0.5));
+        var sixthTurn = new Quaternion(Math.cos(Math.PI / 6), 0, 0, Math.sin(Math.PI / 6));
+        assertClose(sixthTurn, QuaternionInterpolator.slerp(new Quaternion(1, 0, 0, 0), Quaternion.K, 1.0 / 3));
+        // NLERP agrees at the midpoint, but not elsewhere
+        assertClose(quarterTurn, QuaternionInterpolator.nlerp(new Quaternion(1, 0, 0, 0), Quaternion.K, 0.5));
+    }
+
+    @Test
+    public void testTakesTheShortWay() {
+        var from = new Quaternion(1, 0, 0, 0);
+        var to = new Quaternion(-1, 0, 0, -0.01);
+        var halfway = QuaternionInterpolator.slerp(from, to, 0.5);
+        assertEquals(1.0, halfway.a(), 1e-4);
+        assertEquals(1.0, halfway.norm(), 1e-12);
+    }
+
+    @Test
+    public void testBatchMatchesSingle() {
+        var random = new Random(2120);
+        var count = 50;
+        var from = new QuaternionArray(count);
+        var to = new QuaternionArray(count);
+        var t = new double[count];
+        for (var i = 0; i < count; i++) {
+            from.set(i, new Quaternion(random.nextGaussian(), random.nextGaussian(),
+                    random.nextGaussian(), random.nextGaussian()));
+            // Make some of the pairs nearly parallel
+            to.set(i, i % 5 == 0 ? from.get(i).times(3).plus(new Quaternion(0, 0, 1e-6, 0))
+                    : new Quaternion(random.nextGaussian(), random.nextGaussian(),
+                            random.nextGaussian(), random.nextGaussian()));
+            t[i] = random.nextDouble();
+        }
+        var dest = new QuaternionArray(count);
+        for (var mode : QuaternionInterpolator.Mode.values()) {
+            var interpolator = new QuaternionInterpolator(mode);
+            interpolator.interpolate(from, to, t, dest);
+            for (var i = 0; i < count; i++) {
+                assertEquals(interpolator.interpolate(from.get(i), to.get(i), t[i]), dest.get(i));
+            }
+            interpolator.interpolate(from, to, 0.25, dest);
+            for (var i = 0; i < count; i++) {
+                assertEquals(interpolator.interpolate(from.get(i), to.get(i), 0.25), dest.get(i));
+            }
+        }
+    }
+
+    @Test
+    public void testMismatchedLengthsThrow() {
+        var interpolator = new QuaternionInterpolator(QuaternionInterpolator.Mode.ACCURATE);
+        var x = new QuaternionArray(3);
+        assertThrows(IllegalArgumentException.class,
+                () -> interpolator.interpolate(x, new QuaternionArray(2), 0.5, x));
+        assertThrows(IllegalArgumentException.class,
+                () -> interpolator.interpolate(x, x, new double[2], x));
+    }
+}
@@ -0,0 +1,61 @@
+/**
+ * Batch quaternion arithmetic over QuaternionArrays. There are two backends: a
+ * plain scalar loop, and one built on the incubating Vector API that works on
+ * several quaternions per instruction. Both produce exactly the same values as
+ * the corresponding Quaternion methods, which remain the reference semantics.
+ *
+ * Use preferred() to get the vectorized backend when the jdk.incubator.vector
+ * module is available at runtime, and the scalar one otherwise.
+ */
+public interface QuaternionKernels {
+
+    /**
+     * Writes x[i].plus(y[i]) into dest[i] for every i.
+     */
+    void plus(QuaternionArray x, QuaternionArray y, QuaternionArray dest);
+
+    /**
+     * Writes x[i].minus(y[i]) into dest[i] for every i.
+     */
+    void minus(QuaternionArray x, QuaternionArray y, QuaternionArray dest);
+
+    /**
+     * Writes x[i].times(k) into dest[i] for every i.
+     */
+    void times(QuaternionArray x, double k, QuaternionArray dest);
+
+    /**
+     * Writes x[i].norm() into dest[i] for every i.
+     */
+    void norm(QuaternionArray x, double[] dest);
+
+    /**
+     * Writes x[i].normalized() into dest[i] for every i.
+     */
+    void normalized(QuaternionArray x, QuaternionArray dest);
+
+    /**
+     * Returns the plain loop backend, which is always available.
+     */
+    static QuaternionKernels scalar() {
+        return ScalarQuaternionKernels.INSTANCE;
+    }
+
+    /**
+     * Returns the Vector API backend if the jdk.incubator.vector module was
+     * added at startup, and the scalar backend otherwise.
+     */
+    static QuaternionKernels preferred() {
+        if (ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent()) {
+            try {
+                // Load reflectively so that nothing touches the incubator
+                // classes when the module is missing.
+                return (QuaternionKernels) Class.forName("VectorQuaternionKernels")
+                        .getDeclaredConstructor().newInstance();
+            } catch (ReflectiveOperationException | LinkageError e) {
+                // Fall through to the scalar backend
+            }
+        }
+        return scalar();
+    }
+}
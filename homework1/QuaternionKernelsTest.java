@@ -0,0 +1,101 @@
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+public class QuaternionKernelsTest {
+
+    // An odd length, so the vector backend also has to run its scalar tail
+    private static final int LENGTH = 37;
+
+    private static Quaternion[] randomQuaternions(Random random) {
+        var quaternions = new Quaternion[LENGTH];
+        for (var i = 0; i < LENGTH; i++) {
+            quaternions[i] = new Quaternion(random.nextGaussian(), random.nextGaussian(),
+                    random.nextGaussian(), random.nextGaussian());
+        }
+        return quaternions;
+    }
+
+    private void checkMatchesRecord(QuaternionKernels kernels) {
+        var random = new Random(2120);
+        var left = randomQuaternions(random);
+        var right = randomQuaternions(random);
+        var x = QuaternionArray.from(left);
+        var y = QuaternionArray.from(right);
+        var dest = new QuaternionArray(LENGTH);
+        var norms = new double[LENGTH];
+
+        kernels.plus(x, y, dest);
+        for (var i = 0; i < LENGTH; i++) {
+            assertEquals(left[i].plus(right[i]), dest.get(i));
+        }
+        kernels.minus(x, y, dest);
+        for (var i = 0; i < LENGTH; i++) {
+            assertEquals(left[i].minus(right[i]), dest.get(i));
+        }
+        kernels.times(x, 0.3, dest);
+        for (var i = 0; i < LENGTH; i++) {
+            assertEquals(left[i].times(0.3), dest.get(i));
+        }
+        kernels.norm(x, norms);
+        for (var i = 0; i < LENGTH; i++) {
+            assertEquals(left[i].norm(), norms[i]);
+        }
+        kernels.normalized(x, dest);
+        for (var i = 0; i < LENGTH; i++) {
+            assertEquals(left[i].normalized(), dest.get(i));
+        }
+    }
+
+    @Test
+    public void testScalarMatchesRecord() {
+        checkMatchesRecord(QuaternionKernels.scalar());
+    }
+
+    private static boolean vectorModulePresent() {
+        return ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent();
+    }
+
+    @Test
+    public void testPreferredMatchesRecord() {
+        assertNotNull(QuaternionKernels.preferred());
+        checkMatchesRecord(QuaternionKernels.preferred());
+    }
+
+    @Test
+    public void testPreferredIsVectorWhenTheModuleIsPresent() {
+        // Otherwise a broken vector backend would quietly fall back to scalar
+        if (vectorModulePresent()) {
+            assertInstanceOf(VectorQuaternionKernels.class, QuaternionKernels.preferred());
+        } else {
+            assertSame(QuaternionKernels.scalar(), QuaternionKernels.preferred());
+        }
+    }
+
+    @Test
+    public void testVectorMatchesRecord() {
+        assumeTrue(vectorModulePresent(), "jdk.incubator.vector is not in the boot layer");
+        checkMatchesRecord(new VectorQuaternionKernels());
+    }
+
+    @Test
+    public void testNormalizingZeroIsStillRejected() {
+        var x = new QuaternionArray(LENGTH);
+        QuaternionKernels.preferred().normalized(x, x);
+        assertThrows(IllegalArgumentException.class, () -> x.get(0));
+        assertThrows(IllegalArgumentException.class, () -> x.get(LENGTH - 1));
+    }
+
+    @Test
+    public void testMismatchedLengthsThrow() {
+        var x = new QuaternionArray(LENGTH);
+        var y = new QuaternionArray(LENGTH - 1);
+        assertThrows(IllegalArgumentException.class, () -> QuaternionKernels.preferred().plus(x, y, x));
+        assertThrows(IllegalArgumentException.class, () -> QuaternionKernels.preferred().norm(x, new double[1]));
+    }
+}
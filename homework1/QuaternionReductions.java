@@ -0,0 +1,210 @@
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.IntConsumer;
+
+/**
+ * Parallel reductions over long sequences of quaternions, split across cores
+ * with the common fork/join pool: the sum, the ordered Hamilton product, and
+ * the prefix (cumulative) product, as used when composing incremental
+ * rotations along a trajectory.
+ *
+ * The Hamilton product is associative but not commutative, so the product and
+ * prefix product only ever combine neighbouring ranges, left before right.
+ * Because floating point multiplication is not exactly associative the results
+ * can differ from a sequential left-to-right loop in the last few bits.
+ */
+public final class QuaternionReductions {
+
+    public enum Summation {
+        // A plain left-to-right loop within each block: fastest, but the error
+        // grows linearly with the block size.
+        NAIVE,
+        // Recursive halving, so the error only grows with the log of the length.
+        PAIRWISE,
+        // Kahan's compensated summation, whose error does not grow with the length.
+        KAHAN
+    }
+
+    // Ranges shorter than this are handled sequentially by a single task.
+    static final int THRESHOLD = 1 << 12;
+
+    private static final int PAIRWISE_BASE = 8;
+
+    private QuaternionReductions() {
+    }
+
+    public static Quaternion sum(QuaternionArray x) {
+        return sum(x, Summation.PAIRWISE);
+    }
+
+    public static Quaternion sum(QuaternionArray x, Summation summation) {
+        return ForkJoinPool.commonPool().invoke(new SumTask(x, 0, x.length(), summation)).freeze();
+    }
+
+    // Returns x[0] * x[1] * ... * x[n - 1], or 1 if x is empty.
+    public static Quaternion product(QuaternionArray x) {
+        return ForkJoinPool.commonPool().invoke(new ProductTask(x, 0, x.length())).freeze();
+    }
+
+    // Writes x[0] * x[1] * ... * x[i] into dest[i] for every i. The destination
+    // may be x itself.
+    public static void prefixProduct(QuaternionArray x, QuaternionArray dest) {
+        x.checkLength(dest);
+        var blocks = (x.length() + THRESHOLD - 1) / THRESHOLD;
+        // First find the product of each block in parallel...
+        var totals = new MutableQuaternion[blocks];
+        runBlocks(blocks, k -> totals[k] = multiplyRange(x, k * THRESHOLD,
+                Math.min(x.length(), (k + 1) * THRESHOLD), new MutableQuaternion(1, 0, 0, 0)));
+        // ...then the product of everything before each block, which is a
+        // short sequential loop...
+        var offsets = new MutableQuaternion[blocks];
+        var running = new MutableQuaternion(1, 0, 0, 0);
+        for (var k = 0; k < blocks; k++) {
+            offsets[k] = new MutableQuaternion().set(running);
+            running.multiplyInPlace(totals[k]);
+        }
+        // ...and finally scan each block in parallel, starting from its offset.
+        runBlocks(blocks, k -> {
+            var acc = offsets[k];
+            for (var i = k * THRESHOLD; i < Math.min(x.length(), (k + 1) * THRESHOLD); i++) {
+                acc.multiplyInPlace(x.a[i], x.b[i], x.c[i], x.d[i]);
+                dest.a[i] = acc.a();
+                dest.b[i] = acc.b();
+                dest.c[i] = acc.c();
+                dest.d[i] = acc.d();
+            }
+        });
+    }
+
+    private static MutableQuaternion multiplyRange(QuaternionArray x, int lo, int hi, MutableQuaternion acc) {
+        for (var i = lo; i < hi; i++) {
+            acc.multiplyInPlace(x.a[i], x.b[i], x.c[i], x.d[i]);
+        }
+        return acc;
+    }
+
+    private static void runBlocks(int blocks, IntConsumer body) {
+        if (blocks > 0) {
+            ForkJoinPool.commonPool().invoke(new BlockTask(0, blocks, body));
+        }
+    }
+
+    private static double sumLane(double[] lane, int lo, int hi, Summation summation) {
+        return switch (summation) {
+            case NAIVE -> naiveSum(lane, lo, hi);
+            case PAIRWISE -> pairwiseSum(lane, lo, hi);
+            case KAHAN -> kahanSum(lane, lo, hi);
+        };
+    }
+
+    private static double naiveSum(double[] lane, int lo, int hi) {
+        double sum = 0;
+        for (var i = lo; i < hi; i++) {
+            sum += lane[i];
+        }
+        return sum;
+    }
+
+    private static double pairwiseSum(double[] lane, int lo, int hi) {
+        if (hi - lo <= PAIRWISE_BASE) {
+            return naiveSum(lane, lo, hi);
+        }
+        var mid = (lo + hi) >>> 1;
+        return pairwiseSum(lane, lo, mid) + pairwiseSum(lane, mid, hi);
+    }
+
+    private static double kahanSum(double[] lane, int lo, int hi) {
+        double sum = 0;
+        double compensation = 0;
+        for (var i = lo; i < hi; i++) {
+            double y = lane[i] - compensation;
+            double t = sum + y;
+            compensation = (t - sum) - y;
+            sum = t;
+        }
+        return sum;
+    }
+
+    private static class SumTask extends RecursiveTask<MutableQuaternion> {
+        private static final long serialVersionUID = 1L;
+
+        private final QuaternionArray x;
+        private final int lo;
+        private final int hi;
+        private final Summation summation;
+
+        SumTask(QuaternionArray x, int lo, int hi, Summation summation) {
+            this.x = x;
+            this.lo = lo;
+            this.hi = hi;
+            this.summation = summation;
+        }
+
+        @Override
+        protected MutableQuaternion compute() {
+            if (hi - lo <= THRESHOLD) {
+                return new MutableQuaternion(sumLane(x.a, lo, hi, summation), sumLane(x.b, lo, hi, summation),
+                        sumLane(x.c, lo, hi, summation), sumLane(x.d, lo, hi, summation));
+            }
+            var mid = (lo + hi) >>> 1;
+            var left = new SumTask(x, lo, mid, summation);
+            left.fork();
+            var right = new SumTask(x, mid, hi, summation).compute();
+            return left.join().addInPlace(right);
+        }
+    }
+
+    private static class ProductTask extends RecursiveTask<MutableQuaternion> {
+        private static final long serialVersionUID = 1L;
+
+        private final QuaternionArray x;
+        private final int lo;
+        private final int hi;
+
+        ProductTask(QuaternionArray x, int lo, int hi) {
+            this.x = x;
+            this.lo = lo;
+            this.hi = hi;
+        }
+
+        @Override
+        protected MutableQuaternion compute() {
+            if (hi - lo <= THRESHOLD) {
+                return multiplyRange(x, lo, hi, new MutableQuaternion(1, 0, 0, 0));
+            }
+            var mid = (lo + hi) >>> 1;
+            var left = new ProductTask(x, lo, mid);
+            left.fork();
+            var right = new ProductTask(x, mid, hi).compute();
+            // Left times right, never the other way around
+            return left.join().multiplyInPlace(right);
+        }
+    }
+
+    // Runs body on every block index in [lo, hi), splitting the range in half
+    // until each task has a single block.
+    private static class BlockTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final int lo;
+        private final int hi;
+        private final IntConsumer body;
+
+        BlockTask(int lo, int hi, IntConsumer body) {
+            this.lo = lo;
+            this.hi = hi;
+            this.body = body;
+        }
+
+        @Override
+        protected void compute() {
+            if (hi - lo == 1) {
+                body.accept(lo);
+                return;
+            }
+            var mid = (lo + hi) >>> 1;
+            invokeAll(new BlockTask(lo, mid, body), new BlockTask(mid, hi, body));
+        }
+    }
+}
@@ -0,0 +1,87 @@
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class QuaternionReductionsTest {
+
+    private static void assertClose(Quaternion expected, Quaternion actual, double tolerance) {
+        assertEquals(expected.a(), actual.a(), tolerance);
+        assertEquals(expected.b(), actual.b(), tolerance);
+        assertEquals(expected.c(), actual.c(), tolerance);
+        assertEquals(expected.d(), actual.d(), tolerance);
+    }
+
+    // Small random rotations, so long products stay near unit length
+    private static QuaternionArray randomRotations(int length, Random random) {
+        var x = new QuaternionArray(length);
+        for (var i = 0; i < length; i++) {
+            x.set(i, new Quaternion(1, random.nextGaussian() * 0.01, random.nextGaussian() * 0.01,
+                    random.nextGaussian() * 0.01).normalized());
+        }
+        return x;
+    }
+
+    @Test
+    public void testEmptySequences() {
+        var empty = new QuaternionArray(0);
+        assertEquals(Quaternion.ZERO, QuaternionReductions.sum(empty));
+        assertEquals(new Quaternion(1, 0, 0, 0), QuaternionReductions.product(empty));
+        QuaternionReductions.prefixProduct(empty, empty);
+    }
+
+    @Test
+    public void testSumsMatchSequentialLoop() {
+        var x = randomRotations(100_003, new Random(2120));
+        var expected = Quaternion.ZERO;
+        for (var i = 0; i < x.length(); i++) {
+            expected = expected.plus(x.get(i));
+        }
+        for (var summation : QuaternionReductions.Summation.values()) {
+            assertClose(expected, QuaternionReductions.sum(x, summation), 1e-8);
+        }
+    }
+
+    @Test
+    public void testCompensatedSummationBoundsDrift() {
+        // 1 + 1e-16 + 1e-16 + ... is 1 + 1e-11 in real arithmetic, but a naive
+        // loop starting from 1 never moves off it, and only the other blocks
+        // of the parallel sum contribute anything.
+        var x = new QuaternionArray(100_001);
+        x.set(0, new Quaternion(1, 0, 0, 0));
+        for (var i = 1; i < x.length(); i++) {
+            x.set(i, new Quaternion(1e-16, 0, 0, 0));
+        }
+        var naiveError = Math.abs(QuaternionReductions.sum(x, QuaternionReductions.Summation.NAIVE).a() - (1 + 1e-11));
+        assertTrue(naiveError > 1e-13);
+        assertEquals(1 + 1e-11, QuaternionReductions.sum(x, QuaternionReductions.Summation.KAHAN).a(), 1e-15);
+        assertEquals(1 + 1e-11, QuaternionReductions.sum(x, QuaternionReductions.Summation.PAIRWISE).a(), 1e-15);
+    }
+
+    @Test
+    public void testProductsPreserveOrder() {
+        var x = QuaternionArray.from(Quaternion.I, Quaternion.J);
+        assertEquals(Quaternion.K, QuaternionReductions.product(x));
+        var y = QuaternionArray.from(Quaternion.J, Quaternion.I);
+        assertEquals(new Quaternion(0, 0, 0, -1), QuaternionReductions.product(y));
+    }
+
+    @Test
+    public void testPrefixProductMatchesSequentialLoop() {
+        var x = randomRotations(50_001, new Random(2120));
+        var dest = new QuaternionArray(x.length());
+        QuaternionReductions.prefixProduct(x, dest);
+        var expected = new Quaternion(1, 0, 0, 0);
+        for (var i = 0; i < x.length(); i++) {
+            expected = expected.times(x.get(i));
+            assertClose(expected, dest.get(i), 1e-9);
+        }
+        assertClose(expected, QuaternionReductions.product(x), 1e-9);
+        // And in place
+        QuaternionReductions.prefixProduct(x, x);
+        assertClose(expected, x.get(x.length() - 1), 1e-9);
+        assertThrows(IllegalArgumentException.class,
+                () -> QuaternionReductions.prefixProduct(x, new QuaternionArray(3)));
+    }
+}
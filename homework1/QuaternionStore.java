@@ -0,0 +1,215 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * A fixed-length array of quaternions stored off the Java heap, either in
+ * direct memory or in a memory-mapped file, so that very large datasets do not
+ * count against the heap or add to garbage collection work. Each quaternion is
+ * 32 bytes: a, b, c, d as little-endian doubles. Quaternion records are only
+ * created when asked for with get.
+ *
+ * A single ByteBuffer can hold at most 2GB, so the storage is split into
+ * chunks of 2^25 quaternions (1GB) each and indices are longs. As in
+ * QuaternionArray, NaN coefficients are only rejected when read back with get.
+ */
+public class QuaternionStore {
+
+    private static final int BYTES = 4 * Double.BYTES;
+    private static final int DEFAULT_CHUNK_SHIFT = 25;
+
+    private final ByteBuffer[] chunks;
+    private final long length;
+    private final int chunkShift;
+    private final long chunkMask;
+
+    private QuaternionStore(ByteBuffer[] chunks, long length, int chunkShift) {
+        this.chunks = chunks;
+        this.length = length;
+        this.chunkShift = chunkShift;
+        this.chunkMask = (1L << chunkShift) - 1;
+    }
+
+    // Allocates a zero-filled store in direct (off-heap) memory.
+    public static QuaternionStore allocate(long length) {
+        return allocate(length, DEFAULT_CHUNK_SHIFT);
+    }
+
+    static QuaternionStore allocate(long length, int chunkShift) {
+        var chunks = new ByteBuffer[chunkCount(length, chunkShift)];
+        for (var i = 0; i < chunks.length; i++) {
+            chunks[i] = ByteBuffer.allocateDirect(chunkBytes(length, chunkShift, i))
+                    .order(ByteOrder.LITTLE_ENDIAN);
+        }
+        return new QuaternionStore(chunks, length, chunkShift);
+    }
+
+    // Maps the first length quaternions of the given file, creating the file or
+    // extending it with zeros as needed. Writes go straight to the page cache;
+    // call force() to make sure they reach the disk.
+    public static QuaternionStore map(Path file, long length) throws IOException {
+        return map(file, length, DEFAULT_CHUNK_SHIFT);
+    }
+
+    static QuaternionStore map(Path file, long length, int chunkShift) throws IOException {
+        var chunks = new ByteBuffer[chunkCount(length, chunkShift)];
+        // The mappings stay valid after the channel is closed.
+        try (var channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            for (var i = 0; i < chunks.length; i++) {
+                long position = ((long) i << chunkShift) * BYTES;
+                chunks[i] = channel.map(FileChannel.MapMode.READ_WRITE, position,
+                        chunkBytes(length, chunkShift, i)).order(ByteOrder.LITTLE_ENDIAN);
+            }
+        }
+        return new QuaternionStore(chunks, length, chunkShift);
+    }
+
+    private static int chunkCount(long length, int chunkShift) {
+        if (length < 0) {
+            throw new IllegalArgumentException("Length cannot be negative");
+        }
+        return Math.toIntExact((length + (1L << chunkShift) - 1) >>> chunkShift);
+    }
+
+    private static int chunkBytes(long length, int chunkShift, int chunk) {
+        long first = (long) chunk << chunkShift;
+        return (int) Math.min(1L << chunkShift, length - first) * BYTES;
+    }
+
+    public long length() {
+        return length;
+    }
+
+    public double a(long i) {
+        return chunk(i).getDouble(offset(i));
+    }
+
+    public double b(long i) {
+        return chunk(i).getDouble(offset(i) + Double.BYTES);
+    }
+
+    public double c(long i) {
+        return chunk(i).getDouble(offset(i) + 2 * Double.BYTES);
+    }
+
+    public double d(long i) {
+        return chunk(i).getDouble(offset(i) + 3 * Double.BYTES);
+    }
+
+    public Quaternion get(long i) {
+        var chunk = chunk(i);
+        var offset = offset(i);
+        return new Quaternion(chunk.getDouble(offset), chunk.getDouble(offset + Double.BYTES),
+                chunk.getDouble(offset + 2 * Double.BYTES), chunk.getDouble(offset + 3 * Double.BYTES));
+    }
+
+    public void set(long i, double a, double b, double c, double d) {
+        var chunk = chunk(i);
+        var offset = offset(i);
+        chunk.putDouble(offset, a);
+        chunk.putDouble(offset + Double.BYTES, b);
+        chunk.putDouble(offset + 2 * Double.BYTES, c);
+        chunk.putDouble(offset + 3 * Double.BYTES, d);
+    }
+
+    public void set(long i, Quaternion q) {
+        set(i, q.a(), q.b(), q.c(), q.d());
+    }
+
+    // Copies all of src into this store, starting at index start.
+    public void copyFrom(QuaternionArray src, long start) {
+        checkRange(start, src.length());
+        for (var i = 0; i < src.length(); i++) {
+            set(start + i, src.a[i], src.b[i], src.c[i], src.d[i]);
+        }
+    }
+
+    // Fills all of dest from this store, starting at index start.
+    public void copyTo(long start, QuaternionArray dest) {
+        checkRange(start, dest.length());
+        for (var i = 0; i < dest.length(); i++) {
+            var chunk = chunk(start + i);
+            var offset = offset(start + i);
+            dest.a[i] = chunk.getDouble(offset);
+            dest.b[i] = chunk.getDouble(offset + Double.BYTES);
+            dest.c[i] = chunk.getDouble(offset + 2 * Double.BYTES);
+            dest.d[i] = chunk.getDouble(offset + 3 * Double.BYTES);
+        }
+    }
+
+    public void plus(QuaternionStore other, QuaternionStore dest) {
+        checkLength(other);
+        checkLength(dest);
+        for (long i = 0; i < length; i++) {
+            var x = chunk(i);
+            var y = other.chunk(i);
+            var offset = offset(i);
+            dest.set(i, x.getDouble(offset) + y.getDouble(offset),
+                    x.getDouble(offset + Double.BYTES) + y.getDouble(offset + Double.BYTES),
+                    x.getDouble(offset + 2 * Double.BYTES) + y.getDouble(offset + 2 * Double.BYTES),
+                    x.getDouble(offset + 3 * Double.BYTES) + y.getDouble(offset + 3 * Double.BYTES));
+        }
+    }
+
+    public void times(double k, QuaternionStore dest) {
+        checkLength(dest);
+        for (long i = 0; i < length; i++) {
+            var x = chunk(i);
+            var offset = offset(i);
+            dest.set(i, k * x.getDouble(offset), k * x.getDouble(offset + Double.BYTES),
+                    k * x.getDouble(offset + 2 * Double.BYTES), k * x.getDouble(offset + 3 * Double.BYTES));
+        }
+    }
+
+    public void normalized(QuaternionStore dest) {
+        checkLength(dest);
+        for (long i = 0; i < length; i++) {
+            var x = chunk(i);
+            var offset = offset(i);
+            double a = x.getDouble(offset);
+            double b = x.getDouble(offset + Double.BYTES);
+            double c = x.getDouble(offset + 2 * Double.BYTES);
+            double d = x.getDouble(offset + 3 * Double.BYTES);
+            double n = Math.sqrt(a * a + b * b + c * c + d * d);
+            dest.set(i, a / n, b / n, c / n, d / n);
+        }
+    }
+
+    // Flushes any changes to a mapped file out to the disk. This does nothing
+    // for a store in direct memory.
+    public void force() {
+        for (var chunk : chunks) {
+            if (chunk instanceof MappedByteBuffer mapped) {
+                mapped.force();
+            }
+        }
+    }
+
+    private ByteBuffer chunk(long i) {
+        if (i < 0 || i >= length) {
+            throw new IndexOutOfBoundsException(i);
+        }
+        return chunks[(int) (i >>> chunkShift)];
+    }
+
+    private int offset(long i) {
+        return (int) (i & chunkMask) * BYTES;
+    }
+
+    private void checkLength(QuaternionStore other) {
+        if (other.length != length) {
+            throw new IllegalArgumentException("Store lengths must match");
+        }
+    }
+
+    private void checkRange(long start, int count) {
+        if (start < 0 || start > length - count) {
+            throw new IndexOutOfBoundsException();
+        }
+    }
+}
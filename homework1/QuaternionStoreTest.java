@@ -0,0 +1,86 @@
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class QuaternionStoreTest {
+
+    @TempDir
+    Path directory;
+
+    private static Quaternion sample(long i) {
+        return new Quaternion(i, -2.5 * i, 1, i % 7);
+    }
+
+    @Test
+    public void testGetAndSet() {
+        var store = QuaternionStore.allocate(10);
+        assertEquals(10, store.length());
+        assertEquals(Quaternion.ZERO, store.get(3));
+        store.set(3, new Quaternion(3.5, 2.25, -100, -1.25));
+        assertEquals(3.5, store.a(3));
+        assertEquals(2.25, store.b(3));
+        assertEquals(-100.0, store.c(3));
+        assertEquals(-1.25, store.d(3));
+        assertEquals(new Quaternion(3.5, 2.25, -100, -1.25), store.get(3));
+        assertThrows(IndexOutOfBoundsException.class, () -> store.get(10));
+        assertThrows(IndexOutOfBoundsException.class, () -> store.set(-1, Quaternion.I));
+        assertThrows(IllegalArgumentException.class, () -> QuaternionStore.allocate(-1));
+    }
+
+    @Test
+    public void testKernelsAcrossChunks() {
+        // Chunks of 8 quaternions, so the last chunk is only partly used
+        var x = QuaternionStore.allocate(21, 3);
+        var y = QuaternionStore.allocate(21, 3);
+        var dest = QuaternionStore.allocate(21, 3);
+        for (long i = 0; i < x.length(); i++) {
+            x.set(i, sample(i));
+            y.set(i, sample(2 * i + 1));
+        }
+        x.plus(y, dest);
+        for (long i = 0; i < x.length(); i++) {
+            assertEquals(sample(i).plus(sample(2 * i + 1)), dest.get(i));
+        }
+        x.times(-0.5, dest);
+        for (long i = 0; i < x.length(); i++) {
+            assertEquals(sample(i).times(-0.5), dest.get(i));
+        }
+        x.normalized(x);
+        for (long i = 0; i < x.length(); i++) {
+            assertEquals(sample(i).normalized(), x.get(i));
+        }
+        assertThrows(IllegalArgumentException.class, () -> x.plus(QuaternionStore.allocate(20), dest));
+    }
+
+    @Test
+    public void testCopyToAndFromQuaternionArray() {
+        var store = QuaternionStore.allocate(20, 2);
+        var array = QuaternionArray.from(sample(1), sample(2), sample(3), sample(4), sample(5));
+        store.copyFrom(array, 14);
+        assertEquals(sample(3), store.get(16));
+        var copy = new QuaternionArray(6);
+        store.copyTo(13, copy);
+        assertEquals(Quaternion.ZERO, copy.get(0));
+        assertEquals(sample(5), copy.get(5));
+        assertThrows(IndexOutOfBoundsException.class, () -> store.copyFrom(array, 16));
+    }
+
+    @Test
+    public void testMappedFilePersists() throws IOException {
+        var file = directory.resolve("orientations.bin");
+        var store = QuaternionStore.map(file, 11, 2);
+        for (long i = 0; i < store.length(); i++) {
+            store.set(i, sample(i));
+        }
+        store.force();
+        assertEquals(11 * 32, Files.size(file));
+        var reopened = QuaternionStore.map(file, 11);
+        for (long i = 0; i < reopened.length(); i++) {
+            assertEquals(sample(i), reopened.get(i));
+        }
+    }
+}
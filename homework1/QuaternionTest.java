@@ -1,3 +1,8 @@
+import java.nio.BufferOverflowException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
 import java.util.List;
 import org.junit.jupiter.api.Test;
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -40,6 +45,25 @@ public class QuaternionTest {
         assertEquals(Quaternion.K, Quaternion.I.times(Quaternion.J));
     }
 
+    @Test
+    public void testHamiltonProduct() {
+        assertEquals(new Quaternion(0, 0, 0, -1), Quaternion.J.times(Quaternion.I));
+        assertEquals(Quaternion.I, Quaternion.J.times(Quaternion.K));
+        assertEquals(new Quaternion(-1, 0, 0, 0), Quaternion.I.times(Quaternion.I));
+    }
+
+    @Test
+    public void testRotate() {
+        // A quarter turn about the z axis, deliberately not normalized
+        var q = new Quaternion(2, 0, 0, 2);
+        double[] points = { 1, 0, 0, 0, 1, 0, 0, 0, 1 };
+        q.rotate(points, points);
+        double[] expected = { 0, 1, 0, -1, 0, 0, 0, 0, 1 };
+        for (var i = 0; i < points.length; i++) {
+            assertEquals(expected[i], points[i], 1e-15);
+        }
+    }
+
     @Test
     public void testNorms() {
         var q1 = new Quaternion(60, -20, 9, 12);
@@ -66,6 +90,43 @@ public class QuaternionTest {
         assertEquals(q1, q2.inverse());
     }
 
+    @Test
+    public void testExpLogPow() {
+        // e^(i pi) = -1
+        var minusOne = Quaternion.I.times(Math.PI).exp();
+        assertEquals(-1.0, minusOne.a(), 1e-15);
+        assertEquals(0.0, minusOne.b(), 1e-15);
+        assertEquals(new Quaternion(Math.E, 0, 0, 0), new Quaternion(1, 0, 0, 0).exp());
+        assertEquals(new Quaternion(0, Math.PI, 0, 0), new Quaternion(-1, 0, 0, 0).log());
+        assertThrows(IllegalArgumentException.class, () -> Quaternion.ZERO.log());
+
+        var q = new Quaternion(1, -2, 0.5, 3);
+        var roundTrip = q.log().exp();
+        assertEquals(q.a(), roundTrip.a(), 1e-12);
+        assertEquals(q.b(), roundTrip.b(), 1e-12);
+        assertEquals(q.c(), roundTrip.c(), 1e-12);
+        assertEquals(q.d(), roundTrip.d(), 1e-12);
+
+        var squared = q.pow(2);
+        var expected = q.times(q);
+        assertEquals(expected.a(), squared.a(), 1e-12);
+        assertEquals(expected.b(), squared.b(), 1e-12);
+        assertEquals(expected.c(), squared.c(), 1e-12);
+        assertEquals(expected.d(), squared.d(), 1e-12);
+        assertEquals(Quaternion.ZERO, Quaternion.ZERO.pow(3));
+        assertEquals(Quaternion.ONE, Quaternion.ZERO.pow(0));
+        assertEquals(Quaternion.ONE, q.pow(0));
+    }
+
+    @Test
+    public void testExpPowOverflow() {
+        // e^1000 overflows, and with a zero c coefficient that would be Inf * 0
+        assertThrows(ArithmeticException.class, () -> new Quaternion(1000, 1, 0, 0).exp());
+        assertThrows(ArithmeticException.class, () -> new Quaternion(10, 1, 0, 0).pow(400));
+        // Just below the limit still works
+        assertEquals(Math.exp(709), new Quaternion(709, 0, 0, 0).exp().a());
+    }
+
     @Test
     public void testCoefficients() {
         assertEquals(List.of(0.0, 0.0, 0.0, 0.0),
@@ -74,6 +135,40 @@ public class QuaternionTest {
                 new Quaternion(2, 1.5, 10, -8).coefficients());
     }
 
+    @Test
+    public void testPrimitiveExport() {
+        var q = new Quaternion(2, 1.5, 10, -8);
+        var array = new double[6];
+        q.writeTo(array, 1);
+        assertEquals(q, Quaternion.readFrom(array, 1));
+        assertEquals(0.0, array[5]);
+
+        var doubles = DoubleBuffer.allocate(5);
+        q.writeTo(doubles);
+        assertEquals(4, doubles.position());
+        assertThrows(BufferOverflowException.class, () -> q.writeTo(doubles));
+        assertEquals(q, Quaternion.readFrom(doubles.flip()));
+
+        var bytes = ByteBuffer.allocate(32).order(ByteOrder.LITTLE_ENDIAN);
+        q.writeTo(bytes);
+        assertEquals(10.0, bytes.getDouble(16));
+        assertEquals(q, Quaternion.readFrom(bytes.flip()));
+        assertThrows(BufferUnderflowException.class, () -> Quaternion.readFrom(bytes));
+        assertEquals(q, Quaternion.readFrom(bytes, 0));
+        assertEquals(32, bytes.position());
+    }
+
+    @Test
+    public void testFailedReadKeepsPosition() {
+        var doubles = DoubleBuffer.wrap(new double[] {1, 2, Double.NaN, 4});
+        assertThrows(IllegalArgumentException.class, () -> Quaternion.readFrom(doubles));
+        assertEquals(0, doubles.position());
+
+        var bytes = ByteBuffer.allocate(32).putDouble(1).putDouble(2).putDouble(3).putDouble(Double.NaN).flip();
+        assertThrows(IllegalArgumentException.class, () -> Quaternion.readFrom(bytes));
+        assertEquals(0, bytes.position());
+    }
+
     @Test
     public void testToString() {
         assertEquals("Quaternion[a=0.0, b=0.0, c=0.0, d=0.0]",
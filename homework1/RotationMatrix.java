@@ -0,0 +1,82 @@
+import java.util.Objects;
+
+/**
+ * The 3x3 rotation matrix of a quaternion. Building it costs about as much as
+ * one quaternion product, but after that each point is rotated with nine
+ * multiply-adds instead of the two full products of q * v * q^-1, so it pays
+ * off for any batch of more than a couple of points and can be kept around to
+ * rotate many batches by the same orientation.
+ *
+ * The quaternion does not need to be a unit quaternion: its norm is divided
+ * out, so q and q.times(k) give the same rotation.
+ */
+public final class RotationMatrix {
+
+    private final double m00, m01, m02;
+    private final double m10, m11, m12;
+    private final double m20, m21, m22;
+
+    public RotationMatrix(Quaternion q) {
+        double normSquared = q.a() * q.a() + q.b() * q.b() + q.c() * q.c() + q.d() * q.d();
+        if (normSquared == 0) {
+            throw new IllegalArgumentException("Cannot rotate by the zero quaternion");
+        }
+        double s = 2 / normSquared;
+        double ab = s * q.a() * q.b(), ac = s * q.a() * q.c(), ad = s * q.a() * q.d();
+        double bb = s * q.b() * q.b(), bc = s * q.b() * q.c(), bd = s * q.b() * q.d();
+        double cc = s * q.c() * q.c(), cd = s * q.c() * q.d(), dd = s * q.d() * q.d();
+        m00 = 1 - cc - dd;
+        m01 = bc - ad;
+        m02 = bd + ac;
+        m10 = bc + ad;
+        m11 = 1 - bb - dd;
+        m12 = cd - ab;
+        m20 = bd - ac;
+        m21 = cd + ab;
+        m22 = 1 - bb - cc;
+    }
+
+    public double get(int row, int column) {
+        // Check each index on its own, or (0, 3) would alias to (1, 0).
+        Objects.checkIndex(row, 3);
+        Objects.checkIndex(column, 3);
+        return switch (row * 3 + column) {
+            case 0 -> m00;
+            case 1 -> m01;
+            case 2 -> m02;
+            case 3 -> m10;
+            case 4 -> m11;
+            case 5 -> m12;
+            case 6 -> m20;
+            case 7 -> m21;
+            default -> m22;
+        };
+    }
+
+    // Rotates each (x, y, z) triple in xyz, writing the results to dest, which
+    // may be xyz itself.
+    public void rotate(double[] xyz, double[] dest) {
+        if (xyz.length % 3 != 0) {
+            throw new IllegalArgumentException("Points must be given as (x, y, z) triples");
+        }
+        rotate(xyz, 0, dest, 0, xyz.length / 3);
+    }
+
+    // Rotates count points starting at xyz[offset], writing them starting at
+    // dest[destOffset].
+    public void rotate(double[] xyz, int offset, double[] dest, int destOffset, int count) {
+        if (offset < 0 || destOffset < 0 || count < 0
+                || offset + 3L * count > xyz.length || destOffset + 3L * count > dest.length) {
+            throw new IndexOutOfBoundsException();
+        }
+        for (var i = 0; i < count; i++) {
+            // Read all three coordinates first, in case dest is xyz.
+            double x = xyz[offset + 3 * i];
+            double y = xyz[offset + 3 * i + 1];
+            double z = xyz[offset + 3 * i + 2];
+            dest[destOffset + 3 * i] = m00 * x + m01 * y + m02 * z;
+            dest[destOffset + 3 * i + 1] = m10 * x + m11 * y + m12 * z;
+            dest[destOffset + 3 * i + 2] = m20 * x + m21 * y + m22 * z;
+        }
+    }
+}
@@ -0,0 +1,67 @@
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class RotationMatrixTest {
+
+    // Rotates a single point the slow way, with q * v * q^-1
+    private static double[] sandwich(Quaternion q, double x, double y, double z) {
+        var v = q.times(new Quaternion(0, x, y, z)).times(q.inverse());
+        return new double[] { v.b(), v.c(), v.d() };
+    }
+
+    @Test
+    public void testMatchesQuaternionProducts() {
+        var random = new Random(2120);
+        for (var trial = 0; trial < 100; trial++) {
+            var q = new Quaternion(random.nextGaussian(), random.nextGaussian(),
+                    random.nextGaussian(), random.nextGaussian());
+            var points = new double[30];
+            for (var i = 0; i < points.length; i++) {
+                points[i] = random.nextDouble() * 200 - 100;
+            }
+            var rotated = new double[points.length];
+            q.toRotationMatrix().rotate(points, rotated);
+            for (var i = 0; i < points.length; i += 3) {
+                var expected = sandwich(q, points[i], points[i + 1], points[i + 2]);
+                assertEquals(expected[0], rotated[i], 1e-9);
+                assertEquals(expected[1], rotated[i + 1], 1e-9);
+                assertEquals(expected[2], rotated[i + 2], 1e-9);
+            }
+        }
+    }
+
+    @Test
+    public void testIdentityAndEntries() {
+        var m = new Quaternion(3, 0, 0, 0).toRotationMatrix();
+        for (var row = 0; row < 3; row++) {
+            for (var column = 0; column < 3; column++) {
+                assertEquals(row == column ? 1.0 : 0.0, m.get(row, column));
+            }
+        }
+        assertThrows(IndexOutOfBoundsException.class, () -> m.get(3, 0));
+        assertThrows(IndexOutOfBoundsException.class, () -> m.get(0, 3));
+        assertThrows(IndexOutOfBoundsException.class, () -> m.get(1, -1));
+        assertThrows(IndexOutOfBoundsException.class, () -> m.get(-1, 2));
+    }
+
+    @Test
+    public void testOffsetsAndCounts() {
+        var m = new Quaternion(1, 0, 0, 1).toRotationMatrix();
+        double[] points = { 9, 9, 1, 0, 0, 2, 0, 0 };
+        double[] dest = new double[6];
+        m.rotate(points, 2, dest, 0, 2);
+        double[] expected = { 0, 1, 0, 0, 2, 0 };
+        for (var i = 0; i < dest.length; i++) {
+            assertEquals(expected[i], dest[i], 1e-15);
+        }
+        assertThrows(IndexOutOfBoundsException.class, () -> m.rotate(points, 3, dest, 0, 2));
+        assertThrows(IllegalArgumentException.class, () -> m.rotate(new double[4], new double[4]));
+    }
+
+    @Test
+    public void testZeroQuaternionThrows() {
+        assertThrows(IllegalArgumentException.class, () -> Quaternion.ZERO.toRotationMatrix());
+    }
+}
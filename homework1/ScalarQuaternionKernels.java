@@ -0,0 +1,27 @@
+/**
+ * The reference batch backend, which simply runs the loops in QuaternionArray.
+ */
+class ScalarQuaternionKernels implements QuaternionKernels {
+
+    static final ScalarQuaternionKernels INSTANCE = new ScalarQuaternionKernels();
+
+    public void plus(QuaternionArray x, QuaternionArray y, QuaternionArray dest) {
+        x.plus(y, dest);
+    }
+
+    public void minus(QuaternionArray x, QuaternionArray y, QuaternionArray dest) {
+        x.minus(y, dest);
+    }
+
+    public void times(QuaternionArray x, double k, QuaternionArray dest) {
+        x.times(k, dest);
+    }
+
+    public void norm(QuaternionArray x, double[] dest) {
+        x.norm(dest);
+    }
+
+    public void normalized(QuaternionArray x, QuaternionArray dest) {
+        x.normalized(dest);
+    }
+}
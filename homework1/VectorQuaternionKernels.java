@@ -0,0 +1,127 @@
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Batch backend built on the incubating Vector API. Each lane of the
+ * QuaternionArray is processed SPECIES.length() quaternions at a time, with a
+ * scalar loop for whatever is left over at the end. Only plain lane-wise adds,
+ * multiplies, divides and square roots are used (no fused multiply-add), so
+ * the results are bit-identical to the scalar backend.
+ *
+ * This class must only be loaded when the jdk.incubator.vector module is
+ * present; get it through QuaternionKernels.preferred().
+ */
+class VectorQuaternionKernels implements QuaternionKernels {
+
+    private static final VectorSpecies<Double> SPECIES = DoubleVector.SPECIES_PREFERRED;
+
+    public void plus(QuaternionArray x, QuaternionArray y, QuaternionArray dest) {
+        x.checkLength(y.length());
+        x.checkLength(dest.length());
+        var n = x.length();
+        var i = 0;
+        for (var bound = SPECIES.loopBound(n); i < bound; i += SPECIES.length()) {
+            add(x.a, y.a, dest.a, i);
+            add(x.b, y.b, dest.b, i);
+            add(x.c, y.c, dest.c, i);
+            add(x.d, y.d, dest.d, i);
+        }
+        for (; i < n; i++) {
+            dest.a[i] = x.a[i] + y.a[i];
+            dest.b[i] = x.b[i] + y.b[i];
+            dest.c[i] = x.c[i] + y.c[i];
+            dest.d[i] = x.d[i] + y.d[i];
+        }
+    }
+
+    public void minus(QuaternionArray x, QuaternionArray y, QuaternionArray dest) {
+        x.checkLength(y.length());
+        x.checkLength(dest.length());
+        var n = x.length();
+        var i = 0;
+        for (var bound = SPECIES.loopBound(n); i < bound; i += SPECIES.length()) {
+            sub(x.a, y.a, dest.a, i);
+            sub(x.b, y.b, dest.b, i);
+            sub(x.c, y.c, dest.c, i);
+            sub(x.d, y.d, dest.d, i);
+        }
+        for (; i < n; i++) {
+            dest.a[i] = x.a[i] - y.a[i];
+            dest.b[i] = x.b[i] - y.b[i];
+            dest.c[i] = x.c[i] - y.c[i];
+            dest.d[i] = x.d[i] - y.d[i];
+        }
+    }
+
+    public void times(QuaternionArray x, double k, QuaternionArray dest) {
+        x.checkLength(dest.length());
+        var n = x.length();
+        var i = 0;
+        for (var bound = SPECIES.loopBound(n); i < bound; i += SPECIES.length()) {
+            scale(x.a, k, dest.a, i);
+            scale(x.b, k, dest.b, i);
+            scale(x.c, k, dest.c, i);
+            scale(x.d, k, dest.d, i);
+        }
+        for (; i < n; i++) {
+            dest.a[i] = k * x.a[i];
+            dest.b[i] = k * x.b[i];
+            dest.c[i] = k * x.c[i];
+            dest.d[i] = k * x.d[i];
+        }
+    }
+
+    public void norm(QuaternionArray x, double[] dest) {
+        x.checkLength(dest.length);
+        var n = x.length();
+        var i = 0;
+        for (var bound = SPECIES.loopBound(n); i < bound; i += SPECIES.length()) {
+            normAt(x, i).intoArray(dest, i);
+        }
+        for (; i < n; i++) {
+            dest[i] = Math.sqrt(x.a[i] * x.a[i] + x.b[i] * x.b[i] + x.c[i] * x.c[i] + x.d[i] * x.d[i]);
+        }
+    }
+
+    public void normalized(QuaternionArray x, QuaternionArray dest) {
+        x.checkLength(dest.length());
+        var n = x.length();
+        var i = 0;
+        for (var bound = SPECIES.loopBound(n); i < bound; i += SPECIES.length()) {
+            var norm = normAt(x, i);
+            DoubleVector.fromArray(SPECIES, x.a, i).div(norm).intoArray(dest.a, i);
+            DoubleVector.fromArray(SPECIES, x.b, i).div(norm).intoArray(dest.b, i);
+            DoubleVector.fromArray(SPECIES, x.c, i).div(norm).intoArray(dest.c, i);
+            DoubleVector.fromArray(SPECIES, x.d, i).div(norm).intoArray(dest.d, i);
+        }
+        for (; i < n; i++) {
+            double norm = Math.sqrt(x.a[i] * x.a[i] + x.b[i] * x.b[i] + x.c[i] * x.c[i] + x.d[i] * x.d[i]);
+            dest.a[i] = x.a[i] / norm;
+            dest.b[i] = x.b[i] / norm;
+            dest.c[i] = x.c[i] / norm;
+            dest.d[i] = x.d[i] / norm;
+        }
+    }
+
+    // Computes the norms of the SPECIES.length() quaternions starting at i,
+    // summing the squares in the same order as Quaternion.norm.
+    private static DoubleVector normAt(QuaternionArray x, int i) {
+        var a = DoubleVector.fromArray(SPECIES, x.a, i);
+        var b = DoubleVector.fromArray(SPECIES, x.b, i);
+        var c = DoubleVector.fromArray(SPECIES, x.c, i);
+        var d = DoubleVector.fromArray(SPECIES, x.d, i);
+        return a.mul(a).add(b.mul(b)).add(c.mul(c)).add(d.mul(d)).sqrt();
+    }
+
+    private static void add(double[] x, double[] y, double[] dest, int i) {
+        DoubleVector.fromArray(SPECIES, x, i).add(DoubleVector.fromArray(SPECIES, y, i)).intoArray(dest, i);
+    }
+
+    private static void sub(double[] x, double[] y, double[] dest, int i) {
+        DoubleVector.fromArray(SPECIES, x, i).sub(DoubleVector.fromArray(SPECIES, y, i)).intoArray(dest, i);
+    }
+
+    private static void scale(double[] x, double k, double[] dest, int i) {
+        DoubleVector.fromArray(SPECIES, x, i).mul(k).intoArray(dest, i);
+    }
+}
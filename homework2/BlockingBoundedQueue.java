@@ -0,0 +1,283 @@
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A thread-safe, bounded queue that gives producers backpressure: when it is
+ * full, enqueue and put wait for a consumer to make room instead of growing
+ * the array. Consumers can wait for items with take, or wait with a timeout
+ * with poll and drainTo, which takes a whole batch at once.
+ *
+ * dequeue and peek keep the Queue contract and throw NoSuchElementException
+ * on an empty queue rather than waiting; use take to wait. enqueue waits for
+ * room without being interruptible, since the Queue interface cannot throw
+ * InterruptedException; put, offer with a timeout, take and the timed poll
+ * and drainTo can be interrupted.
+ *
+ * The items are stored in a circular array of fixed capacity, as in
+ * ExpandableArrayQueue, guarded by one ReentrantLock with a condition each
+ * for "not full" and "not empty". Waiting threads park through LockSupport
+ * rather than holding a monitor, so no thread ever blocks inside a
+ * synchronized block. Null items are not allowed, so poll can return null
+ * when it times out.
+ */
+public class BlockingBoundedQueue implements Queue {
+
+    private final Object[] elements;
+    private int size = 0;
+    // The index of the current front item, if one exists.
+    private int head = 0;
+    // The index of the next item to be added.
+    private int tail = 0;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notEmpty = lock.newCondition();
+    private final Condition notFull = lock.newCondition();
+
+    public BlockingBoundedQueue(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity must be at least 1");
+        }
+        elements = new Object[capacity];
+    }
+
+    // Adds an item to the back of the queue, waiting as long as it takes for
+    // room. If the thread is interrupted while waiting, it keeps waiting and
+    // the interrupt status is set again when this returns.
+    @Override
+    public void enqueue(Object item) {
+        checkNotNull(item);
+        lock.lock();
+        try {
+            while (size == elements.length) {
+                notFull.awaitUninterruptibly();
+            }
+            insert(item);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Adds an item to the back of the queue, waiting as long as it takes for
+    // room.
+    public void put(Object item) throws InterruptedException {
+        checkNotNull(item);
+        lock.lockInterruptibly();
+        try {
+            while (size == elements.length) {
+                notFull.await();
+            }
+            insert(item);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Adds an item to the back of the queue if there is room, and returns
+    // whether it did.
+    public boolean offer(Object item) {
+        checkNotNull(item);
+        lock.lock();
+        try {
+            if (size == elements.length) {
+                return false;
+            }
+            insert(item);
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Adds an item to the back of the queue, waiting up to the timeout for
+    // room, and returns whether it did.
+    public boolean offer(Object item, long timeout, TimeUnit unit) throws InterruptedException {
+        checkNotNull(item);
+        var nanos = unit.toNanos(timeout);
+        lock.lockInterruptibly();
+        try {
+            while (size == elements.length) {
+                if (nanos <= 0) {
+                    return false;
+                }
+                nanos = notFull.awaitNanos(nanos);
+            }
+            insert(item);
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Removes and returns the front item, or throws NoSuchElementException if
+    // the queue is empty.
+    @Override
+    public Object dequeue() {
+        lock.lock();
+        try {
+            if (size == 0) {
+                throw new NoSuchElementException();
+            }
+            return remove();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Removes and returns the front item, waiting as long as it takes for one.
+    public Object take() throws InterruptedException {
+        lock.lockInterruptibly();
+        try {
+            while (size == 0) {
+                notEmpty.await();
+            }
+            return remove();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Removes and returns the front item, or returns null if the queue is
+    // empty.
+    public Object poll() {
+        lock.lock();
+        try {
+            return size == 0 ? null : remove();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Removes and returns the front item, waiting up to the timeout for one,
+    // or returns null if none arrived in time.
+    public Object poll(long timeout, TimeUnit unit) throws InterruptedException {
+        var nanos = unit.toNanos(timeout);
+        lock.lockInterruptibly();
+        try {
+            while (size == 0) {
+                if (nanos <= 0) {
+                    return null;
+                }
+                nanos = notEmpty.awaitNanos(nanos);
+            }
+            return remove();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public Object peek() {
+        lock.lock();
+        try {
+            if (size == 0) {
+                throw new NoSuchElementException();
+            }
+            return elements[head];
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Removes up to max items that are already in the queue into dest,
+    // without waiting, and returns how many were removed.
+    @Override
+    public int drainTo(Object[] dest, int max) {
+        Objects.checkFromIndexSize(0, max, dest.length);
+        lock.lock();
+        try {
+            return removeAll(dest, max);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Waits up to the timeout for at least one item, then removes up to max
+    // items into dest and returns how many were removed: 0 if none arrived in
+    // time. This lets a consumer handle items in batches, paying for the lock
+    // and any wait once per batch instead of once per item.
+    public int drainTo(Object[] dest, int max, long timeout, TimeUnit unit) throws InterruptedException {
+        Objects.checkFromIndexSize(0, max, dest.length);
+        var nanos = unit.toNanos(timeout);
+        lock.lockInterruptibly();
+        try {
+            while (size == 0 && max > 0) {
+                if (nanos <= 0) {
+                    return 0;
+                }
+                nanos = notEmpty.awaitNanos(nanos);
+            }
+            return removeAll(dest, max);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public int size() {
+        lock.lock();
+        try {
+            return size;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int capacity() {
+        return elements.length;
+    }
+
+    // Returns how many more items fit without waiting.
+    public int remainingCapacity() {
+        lock.lock();
+        try {
+            return elements.length - size;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // The methods below are called with the lock held.
+
+    private void insert(Object item) {
+        elements[tail] = item;
+        tail = (tail + 1) % elements.length;
+        size++;
+        notEmpty.signal();
+    }
+
+    private Object remove() {
+        var item = elements[head];
+        elements[head] = null;
+        head = (head + 1) % elements.length;
+        size--;
+        notFull.signal();
+        return item;
+    }
+
+    private int removeAll(Object[] dest, int max) {
+        var count = Math.min(max, size);
+        // The items may wrap around the end of the circular array, so this
+        // takes at most two copies.
+        var firstPart = Math.min(count, elements.length - head);
+        System.arraycopy(elements, head, dest, 0, firstPart);
+        System.arraycopy(elements, 0, dest, firstPart, count - firstPart);
+        Arrays.fill(elements, head, head + firstPart, null);
+        Arrays.fill(elements, 0, count - firstPart, null);
+        head = (head + count) % elements.length;
+        size -= count;
+        if (count > 0) {
+            notFull.signalAll();
+        }
+        return count;
+    }
+
+    private static void checkNotNull(Object item) {
+        if (item == null) {
+            throw new NullPointerException("Blocking queues cannot hold null");
+        }
+    }
+}
@@ -0,0 +1,164 @@
+import java.util.ArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.BeforeEach;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class BlockingBoundedQueueTest extends QueueTest {
+
+    @BeforeEach
+    public void makeBlockingBoundedQueue() {
+        q = new BlockingBoundedQueue(64);
+    }
+
+    @Test
+    public void testFullQueueRejectsOffers() throws InterruptedException {
+        var queue = new BlockingBoundedQueue(3);
+        assertEquals(3, queue.capacity());
+        for (var i = 0; i < 3; i++) {
+            assertTrue(queue.offer(i));
+        }
+        assertEquals(0, queue.remainingCapacity());
+        assertFalse(queue.offer(3));
+        assertFalse(queue.offer(3, 10, TimeUnit.MILLISECONDS));
+        assertEquals(0, queue.poll());
+        assertTrue(queue.offer(3, 10, TimeUnit.MILLISECONDS));
+        assertEquals(1, queue.take());
+        assertEquals(2, queue.poll(10, TimeUnit.MILLISECONDS));
+        assertEquals(3, queue.poll());
+        assertNull(queue.poll());
+        assertNull(queue.poll(10, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    public void testInvalidArgumentsAreRejected() {
+        assertThrows(IllegalArgumentException.class, () -> new BlockingBoundedQueue(0));
+        assertThrows(NullPointerException.class, () -> q.enqueue(null));
+    }
+
+    @Test
+    public void testProducerWaitsForRoom() throws InterruptedException {
+        var queue = new BlockingBoundedQueue(2);
+        queue.enqueue("a");
+        queue.enqueue("b");
+        var producer = new Thread(() -> queue.enqueue("c"));
+        producer.start();
+        // The producer cannot finish until there is room.
+        producer.join(50);
+        assertTrue(producer.isAlive());
+        assertEquals("a", queue.dequeue());
+        producer.join();
+        assertEquals("b", queue.dequeue());
+        assertEquals("c", queue.dequeue());
+    }
+
+    @Test
+    public void testConsumerWaitsForItems() throws InterruptedException {
+        var queue = new BlockingBoundedQueue(2);
+        var taken = new AtomicReference<Object>();
+        var consumer = new Thread(() -> {
+            try {
+                taken.set(queue.take());
+            } catch (InterruptedException e) {
+                taken.set(e);
+            }
+        });
+        consumer.start();
+        consumer.join(50);
+        assertTrue(consumer.isAlive());
+        queue.put("a");
+        consumer.join();
+        assertEquals("a", taken.get());
+    }
+
+    @Test
+    public void testWaitsCanBeInterrupted() throws InterruptedException {
+        var queue = new BlockingBoundedQueue(1);
+        var thrown = new CountDownLatch(2);
+        var waiter = new Thread(() -> {
+            try {
+                queue.take();
+            } catch (InterruptedException e) {
+                thrown.countDown();
+            }
+            queue.enqueue("a");
+            try {
+                queue.put("b");
+            } catch (InterruptedException e) {
+                thrown.countDown();
+            }
+        });
+        waiter.start();
+        waiter.interrupt();
+        while (queue.isEmpty()) {
+            Thread.yield();
+        }
+        waiter.interrupt();
+        waiter.join();
+        assertEquals(0, thrown.getCount());
+    }
+
+    @Test
+    public void testDrainToWaitsForABatch() throws InterruptedException {
+        var queue = new BlockingBoundedQueue(8);
+        var dest = new Object[4];
+        assertEquals(0, queue.drainTo(dest, 4, 10, TimeUnit.MILLISECONDS));
+        for (var i = 0; i < 6; i++) {
+            queue.enqueue(i);
+        }
+        assertEquals(4, queue.drainTo(dest, 4, 10, TimeUnit.MILLISECONDS));
+        assertEquals(3, dest[3]);
+        assertEquals(2, queue.drainTo(dest, 4));
+        assertEquals(5, dest[1]);
+        var producer = new Thread(() -> queue.enqueue("late"));
+        producer.start();
+        assertEquals(1, queue.drainTo(dest, 4, 10, TimeUnit.SECONDS));
+        assertEquals("late", dest[0]);
+        producer.join();
+    }
+
+    @Test
+    public void testManyProducersAndConsumers() throws InterruptedException {
+        var queue = new BlockingBoundedQueue(4);
+        var perProducer = 20_000;
+        var producers = 4;
+        var total = new AtomicLong();
+        var threads = new ArrayList<Thread>();
+        for (var p = 0; p < producers; p++) {
+            threads.add(new Thread(() -> {
+                for (var i = 1; i <= perProducer; i++) {
+                    queue.enqueue((long) i);
+                }
+            }));
+        }
+        for (var c = 0; c < 2; c++) {
+            threads.add(new Thread(() -> {
+                var batch = new Object[3];
+                for (var received = 0; received < producers * perProducer / 2;) {
+                    try {
+                        var count = queue.drainTo(batch, Math.min(3, producers * perProducer / 2 - received), 1, TimeUnit.SECONDS);
+                        for (var i = 0; i < count; i++) {
+                            total.addAndGet((Long) batch[i]);
+                        }
+                        received += count;
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                }
+            }));
+        }
+        threads.forEach(Thread::start);
+        for (var thread : threads) {
+            thread.join();
+        }
+        assertEquals((long) producers * perProducer * (perProducer + 1) / 2, total.get());
+        assertTrue(queue.isEmpty());
+    }
+}
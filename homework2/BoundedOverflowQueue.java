@@ -0,0 +1,181 @@
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.SplittableRandom;
+
+/**
+ * A queue with a fixed capacity that loses items, rather than growing, when
+ * it overflows. It uses the same circular-array layout as
+ * ExpandableArrayQueue, but the array is allocated once and never resized, so
+ * once it exists nothing on the enqueue or dequeue path allocates.
+ *
+ * What happens to an item enqueued when the queue is full is decided by the
+ * OverflowPolicy. Every item lost, whether it is the incoming one or an old
+ * one that was overwritten, is counted in dropped(), so callers can tell when
+ * they are losing data.
+ */
+public class BoundedOverflowQueue implements Queue {
+
+    public enum OverflowPolicy {
+        // Overwrite the front item, so the queue keeps the most recent items.
+        OVERWRITE_OLDEST,
+        // Drop the incoming item, so the queue keeps the oldest items.
+        DROP_INCOMING,
+        // Throw an IllegalStateException, and keep the queue as it was.
+        THROW,
+        // Keep the incoming item with probability sampleRate, overwriting the
+        // front item; otherwise drop it. This keeps a thinned-out sample of
+        // the items that arrive while the queue is full.
+        SAMPLE
+    }
+
+    private final OverflowPolicy policy;
+    private final double sampleRate;
+    private final SplittableRandom random;
+
+    // The array used to store the queue elements. It is never reallocated.
+    private final Object[] elements;
+    // The number of elements currently in the queue.
+    private int size = 0;
+    // The index of the current front item, if one exists.
+    private int head = 0;
+    // The index of the next item to be added.
+    private int tail = 0;
+    // The number of items lost to overflow.
+    private long dropped = 0;
+
+    // Creates a queue with any policy but SAMPLE, which needs a sample rate:
+    // use the (capacity, sampleRate) constructor for that.
+    public BoundedOverflowQueue(int capacity, OverflowPolicy policy) {
+        this(capacity, checkNotSample(policy), 1.0);
+    }
+
+    // Creates a queue with the SAMPLE policy, which keeps each item that
+    // arrives while it is full with probability sampleRate.
+    public BoundedOverflowQueue(int capacity, double sampleRate) {
+        this(capacity, OverflowPolicy.SAMPLE, sampleRate);
+    }
+
+    private BoundedOverflowQueue(int capacity, OverflowPolicy policy, double sampleRate) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity must be at least 1");
+        }
+        if (!(sampleRate >= 0.0 && sampleRate <= 1.0)) {
+            throw new IllegalArgumentException("Sample rate must be between 0 and 1");
+        }
+        this.policy = Objects.requireNonNull(policy);
+        this.sampleRate = sampleRate;
+        random = policy == OverflowPolicy.SAMPLE ? new SplittableRandom() : null;
+        elements = new Object[capacity];
+    }
+
+    private static OverflowPolicy checkNotSample(OverflowPolicy policy) {
+        if (policy == OverflowPolicy.SAMPLE) {
+            throw new IllegalArgumentException(
+                    "The SAMPLE policy needs a sample rate; use BoundedOverflowQueue(capacity, sampleRate)");
+        }
+        return policy;
+    }
+
+    // Adds an item to the back of the queue, applying the overflow policy if
+    // the queue is full.
+    @Override
+    public void enqueue(Object item) {
+        if (size == elements.length) {
+            switch (policy) {
+                case OVERWRITE_OLDEST -> overwriteOldest(item);
+                case DROP_INCOMING -> dropped++;
+                case THROW -> throw new IllegalStateException("Queue is full");
+                case SAMPLE -> {
+                    if (random.nextDouble() < sampleRate) {
+                        overwriteOldest(item);
+                    } else {
+                        dropped++;
+                    }
+                }
+            }
+            return;
+        }
+        elements[tail] = item;
+        // Move the tail to the next position in the circular array.
+        tail = (tail + 1) % elements.length;
+        size++;
+    }
+
+    // Removes and returns the front item from the queue.
+    @Override
+    public Object dequeue() {
+        var topElement = peek();
+        elements[head] = null;
+        head = (head + 1) % elements.length;
+        size--;
+        return topElement;
+    }
+
+    // Returns the front item from the queue without removing it.
+    @Override
+    public Object peek() {
+        if (isEmpty()) {
+            throw new NoSuchElementException();
+        }
+        return elements[head];
+    }
+
+    // Removes up to max items from the front of the queue into dest, and
+    // returns how many were removed.
+    @Override
+    public int drainTo(Object[] dest, int max) {
+        Objects.checkFromIndexSize(0, max, dest.length);
+        var count = Math.min(max, size);
+        // The items may wrap around the end of the circular array, so this
+        // takes at most two copies, and two fills to clear the old slots.
+        var firstPart = Math.min(count, elements.length - head);
+        System.arraycopy(elements, head, dest, 0, firstPart);
+        System.arraycopy(elements, 0, dest, firstPart, count - firstPart);
+        Arrays.fill(elements, head, head + firstPart, null);
+        Arrays.fill(elements, 0, count - firstPart, null);
+        head = (head + count) % elements.length;
+        size -= count;
+        return count;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    public int capacity() {
+        return elements.length;
+    }
+
+    public OverflowPolicy policy() {
+        return policy;
+    }
+
+    // Returns the number of items lost to overflow since the queue was
+    // created or the count was last reset.
+    public long dropped() {
+        return dropped;
+    }
+
+    // Returns the number of items lost to overflow, and resets it to zero.
+    public long resetDropped() {
+        var count = dropped;
+        dropped = 0;
+        return count;
+    }
+
+    // Replaces the front item of a full queue with a new item at the back.
+    // With the queue full, the head and the tail are the same slot.
+    private void overwriteOldest(Object item) {
+        elements[tail] = item;
+        tail = (tail + 1) % elements.length;
+        head = tail;
+        dropped++;
+    }
+}
@@ -0,0 +1,125 @@
+import java.lang.management.ManagementFactory;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.BeforeEach;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class BoundedOverflowQueueTest extends QueueTest {
+
+    @BeforeEach
+    public void makeBoundedOverflowQueue() {
+        q = new BoundedOverflowQueue(64, BoundedOverflowQueue.OverflowPolicy.THROW);
+    }
+
+    private static BoundedOverflowQueue fill(BoundedOverflowQueue queue, int count) {
+        for (var i = 0; i < count; i++) {
+            queue.enqueue(i);
+        }
+        return queue;
+    }
+
+    @Test
+    public void testOverwriteOldestKeepsTheNewestItems() {
+        var queue = fill(new BoundedOverflowQueue(4, BoundedOverflowQueue.OverflowPolicy.OVERWRITE_OLDEST), 10);
+        assertEquals(4, queue.size());
+        assertEquals(6, queue.dropped());
+        for (var i = 6; i < 10; i++) {
+            assertEquals(i, queue.dequeue());
+        }
+        assertTrue(queue.isEmpty());
+    }
+
+    @Test
+    public void testDropIncomingKeepsTheOldestItems() {
+        var queue = fill(new BoundedOverflowQueue(4, BoundedOverflowQueue.OverflowPolicy.DROP_INCOMING), 10);
+        assertEquals(4, queue.size());
+        assertEquals(6, queue.resetDropped());
+        assertEquals(0, queue.dropped());
+        for (var i = 0; i < 4; i++) {
+            assertEquals(i, queue.dequeue());
+        }
+    }
+
+    @Test
+    public void testThrowLeavesTheQueueAlone() {
+        var queue = fill(new BoundedOverflowQueue(4, BoundedOverflowQueue.OverflowPolicy.THROW), 4);
+        assertThrows(IllegalStateException.class, () -> queue.enqueue(4));
+        assertEquals(0, queue.dropped());
+        assertEquals(0, queue.dequeue());
+        queue.enqueue(4);
+        var dest = new Object[8];
+        assertEquals(4, queue.drainTo(dest, 8));
+        assertEquals(1, dest[0]);
+        assertEquals(4, dest[3]);
+    }
+
+    @Test
+    public void testSampling() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new BoundedOverflowQueue(4, BoundedOverflowQueue.OverflowPolicy.SAMPLE));
+        var keepNone = fill(new BoundedOverflowQueue(4, 0.0), 10);
+        assertEquals(BoundedOverflowQueue.OverflowPolicy.SAMPLE, keepNone.policy());
+        assertEquals(6, keepNone.dropped());
+        assertEquals(0, keepNone.peek());
+        var keepAll = fill(new BoundedOverflowQueue(4, 1.0), 10);
+        assertEquals(6, keepAll.dropped());
+        assertEquals(6, keepAll.peek());
+        // Each overflowing item is lost once, whether it is dropped or it
+        // overwrites an older one.
+        var half = fill(new BoundedOverflowQueue(100, 0.5), 100_100);
+        assertEquals(100_000, half.dropped());
+        assertEquals(100, half.size());
+        assertThrows(IllegalArgumentException.class, () -> new BoundedOverflowQueue(4, 1.5));
+        assertThrows(IllegalArgumentException.class, () -> new BoundedOverflowQueue(0, 0.5));
+    }
+
+    @Test
+    public void testSamplingKeepsRecentItemsAtTheSampleRate() {
+        var queue = new BoundedOverflowQueue(1000, 0.1);
+        fill(queue, 1000);
+        // After 10,000 more, about 1,000 were kept, so only a few of the
+        // original items should be left.
+        for (var i = 0; i < 10_000; i++) {
+            queue.enqueue(-1);
+        }
+        var originals = 0;
+        while (!queue.isEmpty()) {
+            if ((Integer) queue.dequeue() >= 0) {
+                originals++;
+            }
+        }
+        assertTrue(originals < 200, "Too many originals left: " + originals);
+    }
+
+    @Test
+    public void testWarmQueueDoesNotAllocate() {
+        if (!(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean threads)
+                || !threads.isThreadAllocatedMemorySupported()) {
+            return;
+        }
+        var item = new Object();
+        for (var policy : BoundedOverflowQueue.OverflowPolicy.values()) {
+            if (policy == BoundedOverflowQueue.OverflowPolicy.THROW) {
+                continue;
+            }
+            var queue = policy == BoundedOverflowQueue.OverflowPolicy.SAMPLE
+                    ? new BoundedOverflowQueue(64, 0.5)
+                    : new BoundedOverflowQueue(64, policy);
+            churn(queue, item);
+            var thread = Thread.currentThread().getId();
+            var before = threads.getThreadAllocatedBytes(thread);
+            churn(queue, item);
+            var allocated = threads.getThreadAllocatedBytes(thread) - before;
+            assertTrue(allocated < 1024, policy + " allocated " + allocated + " bytes");
+        }
+    }
+
+    private static void churn(BoundedOverflowQueue queue, Object item) {
+        for (var i = 0; i < 100_000; i++) {
+            queue.enqueue(item);
+            queue.enqueue(item);
+            queue.dequeue();
+        }
+    }
+}
@@ -0,0 +1,104 @@
+/**
+ * How ExpandableArrayStack and ExpandableArrayQueue resize their arrays.
+ *
+ * When an array is full it grows by growthFactor, up to maximumCapacity. When
+ * a removal leaves it less than shrinkThreshold full it shrinks by the same
+ * factor, down to minimumCapacity; a threshold of zero means it never shrinks.
+ * shrinkDelay adds hysteresis: the array only shrinks once more than that
+ * many removals have found it too sparse, with none finding it full enough in
+ * between. Additions alone don't restart the count, so a queue that is
+ * draining with the odd addition still shrinks, while a workload that keeps
+ * climbing back over the threshold doesn't copy the array back and forth.
+ *
+ * The threshold must be below 1 / growthFactor, so that an array that has just
+ * shrunk is never full and an array that has just grown is never sparse.
+ */
+public record CapacityPolicy(
+        int minimumCapacity,
+        int maximumCapacity,
+        double growthFactor,
+        double shrinkThreshold,
+        int shrinkDelay) {
+
+    // The largest array most JVMs will allocate.
+    public static final int MAXIMUM_ARRAY_SIZE = Integer.MAX_VALUE - 8;
+
+    // Double when full, halve when less than a quarter full, never below 16.
+    public static final CapacityPolicy DEFAULT = new CapacityPolicy(16, MAXIMUM_ARRAY_SIZE, 2.0, 0.25, 0);
+
+    public CapacityPolicy {
+        if (minimumCapacity < 1 || minimumCapacity > maximumCapacity || maximumCapacity > MAXIMUM_ARRAY_SIZE) {
+            throw new IllegalArgumentException("Capacities must satisfy 1 <= minimum <= maximum <= " + MAXIMUM_ARRAY_SIZE);
+        }
+        if (!(growthFactor > 1.0) || Double.isInfinite(growthFactor)) {
+            throw new IllegalArgumentException("Growth factor must be greater than 1");
+        }
+        if (!(shrinkThreshold >= 0.0 && shrinkThreshold * growthFactor < 1.0)) {
+            throw new IllegalArgumentException("Shrink threshold must be at least 0 and below 1 / growth factor");
+        }
+        if (shrinkDelay < 0) {
+            throw new IllegalArgumentException("Shrink delay cannot be negative");
+        }
+    }
+
+    public CapacityPolicy withMinimumCapacity(int minimumCapacity) {
+        return new CapacityPolicy(minimumCapacity, maximumCapacity, growthFactor, shrinkThreshold, shrinkDelay);
+    }
+
+    public CapacityPolicy withMaximumCapacity(int maximumCapacity) {
+        return new CapacityPolicy(minimumCapacity, maximumCapacity, growthFactor, shrinkThreshold, shrinkDelay);
+    }
+
+    public CapacityPolicy withGrowthFactor(double growthFactor) {
+        return new CapacityPolicy(minimumCapacity, maximumCapacity, growthFactor, shrinkThreshold, shrinkDelay);
+    }
+
+    public CapacityPolicy withShrinkThreshold(double shrinkThreshold) {
+        return new CapacityPolicy(minimumCapacity, maximumCapacity, growthFactor, shrinkThreshold, shrinkDelay);
+    }
+
+    public CapacityPolicy withShrinkDelay(int shrinkDelay) {
+        return new CapacityPolicy(minimumCapacity, maximumCapacity, growthFactor, shrinkThreshold, shrinkDelay);
+    }
+
+    public CapacityPolicy neverShrink() {
+        return withShrinkThreshold(0.0);
+    }
+
+    // Returns a policy whose minimum capacity is raised to initialCapacity, for
+    // collections that are sized up front and should never shrink below that.
+    public CapacityPolicy presized(int initialCapacity) {
+        if (initialCapacity < 0) {
+            throw new IllegalArgumentException("Initial capacity cannot be negative");
+        }
+        return withMinimumCapacity(Math.max(minimumCapacity, initialCapacity));
+    }
+
+    // Returns the capacity to grow to so that at least required items fit,
+    // following the same steps as growing one item at a time.
+    public int grow(int capacity, int required) {
+        if (required > maximumCapacity) {
+            throw new IllegalStateException("Capacity cannot exceed " + maximumCapacity);
+        }
+        while (capacity < required) {
+            var next = (long) Math.ceil(capacity * growthFactor);
+            capacity = (int) Math.min(maximumCapacity, Math.max(capacity + 1L, next));
+        }
+        return capacity;
+    }
+
+    // Returns true if an array of this capacity holding size items is sparse
+    // enough to shrink.
+    public boolean isSparse(int size, int capacity) {
+        return capacity > minimumCapacity && size < capacity * shrinkThreshold;
+    }
+
+    // Returns the capacity to shrink to, following the same steps as
+    // shrinking after one removal at a time.
+    public int shrink(int size, int capacity) {
+        while (isSparse(size, capacity)) {
+            capacity = Math.max(minimumCapacity, (int) (capacity / growthFactor));
+        }
+        return capacity;
+    }
+}
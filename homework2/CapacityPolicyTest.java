@@ -0,0 +1,54 @@
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class CapacityPolicyTest {
+
+    @Test
+    public void testDefaultDoublesAndHalves() {
+        var policy = CapacityPolicy.DEFAULT;
+        assertEquals(32, policy.grow(16, 17));
+        assertEquals(128, policy.grow(16, 100));
+        assertFalse(policy.isSparse(8, 32));
+        assertTrue(policy.isSparse(7, 32));
+        assertEquals(16, policy.shrink(7, 32));
+        assertEquals(16, policy.shrink(0, 1024));
+        assertEquals(64, policy.shrink(31, 256));
+        assertFalse(policy.isSparse(0, 16));
+    }
+
+    @Test
+    public void testOtherGrowthFactorsAndLimits() {
+        var policy = CapacityPolicy.DEFAULT.withGrowthFactor(1.5).withShrinkThreshold(0.5).withMaximumCapacity(40);
+        assertEquals(24, policy.grow(16, 17));
+        assertEquals(36, policy.grow(16, 25));
+        assertEquals(40, policy.grow(36, 37));
+        assertThrows(IllegalStateException.class, () -> policy.grow(40, 41));
+        assertEquals(24, policy.shrink(13, 36));
+        assertEquals(16, policy.shrink(11, 36));
+        // A growth factor this close to 1 must still make progress.
+        assertEquals(17, CapacityPolicy.DEFAULT.withGrowthFactor(1.0001).grow(16, 17));
+    }
+
+    @Test
+    public void testNeverShrinkAndPresized() {
+        assertFalse(CapacityPolicy.DEFAULT.neverShrink().isSparse(0, 1024));
+        assertEquals(100, CapacityPolicy.DEFAULT.presized(100).minimumCapacity());
+        assertEquals(16, CapacityPolicy.DEFAULT.presized(3).minimumCapacity());
+        assertThrows(IllegalArgumentException.class, () -> CapacityPolicy.DEFAULT.presized(-1));
+    }
+
+    @Test
+    public void testInvalidPoliciesAreRejected() {
+        var policy = CapacityPolicy.DEFAULT;
+        assertThrows(IllegalArgumentException.class, () -> policy.withMinimumCapacity(0));
+        assertThrows(IllegalArgumentException.class, () -> policy.withMaximumCapacity(8));
+        assertThrows(IllegalArgumentException.class, () -> policy.withGrowthFactor(1.0));
+        assertThrows(IllegalArgumentException.class, () -> policy.withGrowthFactor(Double.NaN));
+        assertThrows(IllegalArgumentException.class, () -> policy.withShrinkThreshold(0.5));
+        assertThrows(IllegalArgumentException.class, () -> policy.withShrinkThreshold(-0.1));
+        assertThrows(IllegalArgumentException.class, () -> policy.withShrinkDelay(-1));
+    }
+}
@@ -0,0 +1,77 @@
+import java.util.NoSuchElementException;
+
+// A stack of doubles with the same growth and shrinking rules as
+// ExpandableArrayStack, but backed by a double[] so nothing is ever boxed.
+public class DoubleStack {
+    private static final int MINIMUM_CAPACITY = 16;
+
+    private double[] elements = new double[MINIMUM_CAPACITY];
+    private int size = 0;
+
+    public void push(double item) {
+        // If the stack is full, double the capacity of the array.
+        if (size == elements.length) {
+            reallocate(elements.length * 2);
+        }
+        elements[size++] = item;
+    }
+
+    public double popDouble() {
+        var topElement = peekDouble();
+        // If the stack is at most 25% full, halve the capacity of the array.
+        if (size <= capacity() / 4 && capacity() > MINIMUM_CAPACITY) {
+            reallocate(elements.length / 2);
+        }
+        size--;
+        return topElement;
+    }
+
+    public double peekDouble() {
+        if (isEmpty()) {
+            throw new NoSuchElementException();
+        }
+        return elements[size - 1];
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int capacity() {
+        return elements.length;
+    }
+
+    // Returns a view of this stack through the Stack interface, for code that
+    // needs one. Every push and pop through the view boxes or unboxes, and
+    // pushing anything other than a Double throws a ClassCastException.
+    public Stack asStack() {
+        return new Stack() {
+            public void push(Object item) {
+                DoubleStack.this.push((Double) item);
+            }
+
+            public Object pop() {
+                return popDouble();
+            }
+
+            public Object peek() {
+                return peekDouble();
+            }
+
+            public int size() {
+                return size;
+            }
+        };
+    }
+
+    private void reallocate(int newSize) {
+        double[] newArray = new double[newSize];
+        // Copy the elements from the old array to the new array.
+        System.arraycopy(elements, 0, newArray, 0, size);
+        elements = newArray;
+    }
+}
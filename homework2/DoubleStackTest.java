@@ -0,0 +1,70 @@
+import java.util.NoSuchElementException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.BeforeEach;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class DoubleStackTest {
+
+    private DoubleStack s;
+
+    @BeforeEach
+    public void makeDoubleStack() {
+        s = new DoubleStack();
+    }
+
+    @Test
+    public void testNewStackIsEmpty() {
+        assertTrue(s.isEmpty());
+        assertEquals(0, s.size());
+    }
+
+    @Test
+    public void testPushesAndPopsInLastInFirstOutOrder() {
+        for (var i = 0; i < 100; i++) {
+            s.push(i + 0.5);
+        }
+        assertFalse(s.isEmpty());
+        assertEquals(100, s.size());
+        for (var i = 99; i >= 0; i--) {
+            assertEquals(i + 0.5, s.peekDouble());
+            assertEquals(i + 0.5, s.popDouble());
+        }
+        assertTrue(s.isEmpty());
+    }
+
+    @Test
+    public void testPopAndPeekOnEmptyStackThrow() {
+        assertThrows(NoSuchElementException.class, () -> s.popDouble());
+        assertThrows(NoSuchElementException.class, () -> s.peekDouble());
+    }
+
+    @Test
+    public void testGrowsAndShrinksLikeExpandableArrayStack() {
+        var reference = new ExpandableArrayStack();
+        for (var i = 0; i < 16 * 4 + 1; i++) {
+            s.push(i + 0.5);
+            reference.push(i);
+            assertEquals(reference.capacity(), s.capacity());
+        }
+        while (!s.isEmpty()) {
+            s.popDouble();
+            reference.pop();
+            assertEquals(reference.capacity(), s.capacity());
+        }
+    }
+
+    @Test
+    public void testStackView() {
+        var view = s.asStack();
+        view.push(7.0);
+        s.push(8.0);
+        assertEquals(2, view.size());
+        assertEquals(8.0, view.pop());
+        assertEquals(7.0, view.peek());
+        assertThrows(ClassCastException.class, () -> view.push("abc"));
+        assertEquals(1, view.size());
+    }
+}
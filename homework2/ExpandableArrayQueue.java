@@ -1,24 +1,52 @@
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.Objects;
 
 // This class implements a queue data structure using an expandable array.
 public class ExpandableArrayQueue implements Queue {
-    // The minimum capacity of the array used to store the queue elements.
-    // This value is used when reallocating the array to a smaller size.
-    private static final int MINIMUM_CAPACITY = 16;
+    // Decides when and by how much the array used to store the queue elements
+    // grows and shrinks.
+    private final CapacityPolicy policy;
 
     // The array used to store the queue elements.
-    private Object[] elements = new Object[MINIMUM_CAPACITY];
+    private Object[] elements;
     // The number of elements currently in the queue.
     private int size = 0;
     // The index of the current front item, if one exists.
     private int head = 0;
     // The index of the next item to be added.
     private int tail = 0;
+    // How many removals have found the array too sparse since one last found
+    // it full enough. Additions don't reset this, so a trickle of them
+    // cannot stop a draining array from shrinking.
+    private int sparseRemovals = 0;
+
+    public ExpandableArrayQueue() {
+        this(CapacityPolicy.DEFAULT);
+    }
+
+    // Creates a queue that starts with room for initialCapacity items, and
+    // never shrinks below that.
+    public ExpandableArrayQueue(int initialCapacity) {
+        this(initialCapacity, CapacityPolicy.DEFAULT);
+    }
+
+    public ExpandableArrayQueue(CapacityPolicy policy) {
+        this.policy = policy;
+        elements = new Object[policy.minimumCapacity()];
+    }
+
+    // Creates a queue that starts with room for initialCapacity items, and
+    // never shrinks below that.
+    public ExpandableArrayQueue(int initialCapacity, CapacityPolicy policy) {
+        this(policy.presized(initialCapacity));
+    }
 
     // Adds an item to the back of the queue.
     public void enqueue(Object item) {
-        // If the queue is full, double the capacity of the array.
+        // If the queue is full, grow the array.
         if (size == elements.length) {
-            reallocate(elements.length * 2);
+            reallocate(policy.grow(elements.length, size + 1));
         }
         elements[tail] = item;
         // Move the tail to the next position in the circular array.
@@ -30,16 +58,13 @@ public class ExpandableArrayQueue implements Queue {
     public Object dequeue() {
         // Save a reference to the front item, so it can be returned later.
         var topElement = peek();
-        // If the queue is at most 25% full, halve the capacity of the array.
-        if (size <= capacity() / 4 && capacity() > MINIMUM_CAPACITY) {
-            reallocate(elements.length / 2);
-        }
         // Remove the front item from the queue by setting the element at the head
         // index to null.
         elements[head] = null;
         // Move the head to the next position in the circular array.
         head = (head + 1) % elements.length;
         size--;
+        shrinkIfSparse();
         return topElement;
     }
 
@@ -52,6 +77,57 @@ public class ExpandableArrayQueue implements Queue {
         return elements[head];
     }
 
+    // Adds a range of items to the back of the queue, growing at most once.
+    @Override
+    public void enqueueAll(Object[] items, int offset, int length) {
+        Objects.checkFromIndexSize(offset, length, items.length);
+        ensureCapacity(size + length);
+        // The free space may wrap around the end of the circular array, so
+        // this takes at most two copies.
+        var firstPart = Math.min(length, elements.length - tail);
+        System.arraycopy(items, offset, elements, tail, firstPart);
+        System.arraycopy(items, offset + firstPart, elements, 0, length - firstPart);
+        tail = (tail + length) % elements.length;
+        size += length;
+    }
+
+    // Removes up to max items from the front of the queue into dest, and
+    // returns how many were removed.
+    @Override
+    public int drainTo(Object[] dest, int max) {
+        Objects.checkFromIndexSize(0, max, dest.length);
+        var count = Math.min(max, size);
+        // The items may wrap around the end of the circular array, so this
+        // takes at most two copies, and two fills to clear the old slots.
+        var firstPart = Math.min(count, elements.length - head);
+        System.arraycopy(elements, head, dest, 0, firstPart);
+        System.arraycopy(elements, 0, dest, firstPart, count - firstPart);
+        Arrays.fill(elements, head, head + firstPart, null);
+        Arrays.fill(elements, 0, count - firstPart, null);
+        head = (head + count) % elements.length;
+        size -= count;
+        shrinkIfSparse();
+        return count;
+    }
+
+    // Grows the array, if needed, so that it can hold at least minCapacity
+    // items without growing again.
+    public void ensureCapacity(int minCapacity) {
+        if (minCapacity > elements.length) {
+            reallocate(policy.grow(elements.length, minCapacity));
+        }
+    }
+
+    // Shrinks the array to fit the items in the queue, but not below the
+    // policy's minimum capacity.
+    public void trimToSize() {
+        var newCapacity = Math.max(size, policy.minimumCapacity());
+        if (newCapacity < elements.length) {
+            reallocate(newCapacity);
+        }
+        sparseRemovals = 0;
+    }
+
     // Returns true if the queue is empty, and false otherwise.
     @Override
     public boolean isEmpty() {
@@ -68,18 +144,34 @@ public class ExpandableArrayQueue implements Queue {
         return elements.length;
     }
 
+    public CapacityPolicy policy() {
+        return policy;
+    }
+
+    // Called after every removal. Shrinks the array once enough removals have
+    // found it too sparse, without one finding it full enough in between.
+    private void shrinkIfSparse() {
+        if (!policy.isSparse(size, elements.length)) {
+            sparseRemovals = 0;
+        } else if (++sparseRemovals > policy.shrinkDelay()) {
+            sparseRemovals = 0;
+            reallocate(policy.shrink(size, elements.length));
+        }
+    }
+
     // Reallocates the array used to store the queue elements to the specified size.
     // When reallocating, always make the new head 0.
     private void reallocate(int newSize) {
         Object[] newArray = new Object[newSize];
-        for (var i = 0; i < size(); i++) {
-            // Copy the elements from the old array to the new array,
-            // taking into account the circular nature of the old array.
-            newArray[i] = elements[(head + i) % capacity()];
-        }
+        // Copy the elements from the old array to the new array, taking into
+        // account the circular nature of the old array: they run from the head
+        // to the end of the array, then wrap around to the start.
+        var firstPart = Math.min(size, elements.length - head);
+        System.arraycopy(elements, head, newArray, 0, firstPart);
+        System.arraycopy(elements, 0, newArray, firstPart, size - firstPart);
         // Set the head and tail indices to their new positions in the new array.
         head = 0;
-        tail = size();
+        tail = size % newSize;
         elements = newArray;
     }
 }
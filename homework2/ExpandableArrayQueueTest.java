@@ -1,6 +1,7 @@
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.BeforeEach;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 public class ExpandableArrayQueueTest extends QueueTest {
 
@@ -63,4 +64,119 @@ public class ExpandableArrayQueueTest extends QueueTest {
             assertEquals(initialCapacity, ((ExpandableArrayQueue) q).capacity());
         }
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testBulkTransfersAcrossTheWrapAndGrowOnce() {
+        var queue = (ExpandableArrayQueue) q;
+        int initialCapacity = queue.capacity();
+        // Move the head near the end of the array so the bulk copies wrap.
+        for (var i = 0; i < initialCapacity - 3; i++) {
+            q.enqueue("abc");
+            q.dequeue();
+        }
+        var items = new Object[initialCapacity * 3];
+        for (var i = 0; i < items.length; i++) {
+            items[i] = i;
+        }
+        q.enqueueAll(items, 0, initialCapacity);
+        assertEquals(initialCapacity, queue.capacity());
+        q.enqueueAll(items, initialCapacity, initialCapacity * 2);
+        assertEquals(initialCapacity * 4, queue.capacity());
+        var dest = new Object[items.length];
+        assertEquals(items.length - 1, q.drainTo(dest, items.length - 1));
+        for (var i = 0; i < items.length - 1; i++) {
+            assertEquals(i, dest[i]);
+        }
+        assertEquals(initialCapacity, queue.capacity());
+        assertEquals(items.length - 1, q.dequeue());
+    }
+
+    @Test
+    public void testShrinkDelayStopsThrashing() {
+        var queue = new ExpandableArrayQueue(CapacityPolicy.DEFAULT.withShrinkDelay(3));
+        for (var i = 0; i < 33; i++) {
+            queue.enqueue(i);
+        }
+        for (var i = 0; i < 18; i++) {
+            queue.dequeue();
+        }
+        // 15 items in 64 slots is sparse, but only one removal has seen that.
+        assertEquals(64, queue.capacity());
+        // Climbing back over the threshold starts the count again.
+        queue.enqueue(1);
+        queue.enqueue(2);
+        queue.dequeue();
+        for (var i = 0; i < 3; i++) {
+            queue.dequeue();
+            assertEquals(64, queue.capacity());
+        }
+        queue.dequeue();
+        assertEquals(32, queue.capacity());
+        assertEquals(12, queue.size());
+    }
+
+    @Test
+    public void testTrickleOfAddsStillShrinks() {
+        var queue = new ExpandableArrayQueue(CapacityPolicy.DEFAULT.withShrinkDelay(3));
+        for (var i = 0; i < 1000; i++) {
+            queue.enqueue(i);
+        }
+        assertEquals(1024, queue.capacity());
+        // One add per three removals, fewer than the delay.
+        while (queue.size() > 50) {
+            for (var i = 0; i < 3; i++) {
+                queue.dequeue();
+            }
+            queue.enqueue(0);
+        }
+        assertEquals(128, queue.capacity());
+    }
+
+    @Test
+    public void testNeverShrink() {
+        var queue = new ExpandableArrayQueue(CapacityPolicy.DEFAULT.neverShrink());
+        for (var i = 0; i < 100; i++) {
+            queue.enqueue(i);
+        }
+        while (!queue.isEmpty()) {
+            queue.dequeue();
+        }
+        assertEquals(128, queue.capacity());
+    }
+
+    @Test
+    public void testPresizingEnsureCapacityAndTrimToSize() {
+        var queue = new ExpandableArrayQueue(100);
+        assertEquals(100, queue.capacity());
+        queue.enqueue("abc");
+        queue.dequeue();
+        assertEquals(100, queue.capacity());
+        queue.ensureCapacity(150);
+        assertEquals(200, queue.capacity());
+        for (var i = 0; i < 120; i++) {
+            queue.enqueue(i);
+        }
+        queue.trimToSize();
+        assertEquals(120, queue.capacity());
+        assertEquals(120, queue.size());
+        queue.enqueue("abc");
+        assertEquals(240, queue.capacity());
+        while (queue.size() > 3) {
+            queue.dequeue();
+        }
+        queue.trimToSize();
+        assertEquals(100, queue.capacity());
+        assertThrows(IllegalArgumentException.class, () -> new ExpandableArrayQueue(-1));
+    }
+
+    @Test
+    public void testMaximumCapacity() {
+        var queue = new ExpandableArrayQueue(CapacityPolicy.DEFAULT.withMaximumCapacity(20));
+        for (var i = 0; i < 20; i++) {
+            queue.enqueue(i);
+        }
+        assertEquals(20, queue.capacity());
+        assertThrows(IllegalStateException.class, () -> queue.enqueue("abc"));
+        assertEquals(20, queue.size());
+    }
+}
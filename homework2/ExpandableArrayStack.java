@@ -1,26 +1,50 @@
+import java.util.Arrays;
 import java.util.NoSuchElementException;
+import java.util.Objects;
 
 public class ExpandableArrayStack implements Stack {
-    private static final int MINIMUM_CAPACITY = 16;
+    private final CapacityPolicy policy;
 
-    private Object[] elements = new Object[MINIMUM_CAPACITY];
+    private Object[] elements;
     private int size = 0;
+    // How many pops have found the array too sparse since one last found
+    // it full enough. Additions don't reset this, so a trickle of them
+    // cannot stop a draining array from shrinking.
+    private int sparseRemovals = 0;
+
+    public ExpandableArrayStack() {
+        this(CapacityPolicy.DEFAULT);
+    }
+
+    // Creates a stack that starts with room for initialCapacity items, and
+    // never shrinks below that.
+    public ExpandableArrayStack(int initialCapacity) {
+        this(initialCapacity, CapacityPolicy.DEFAULT);
+    }
+
+    public ExpandableArrayStack(CapacityPolicy policy) {
+        this.policy = policy;
+        elements = new Object[policy.minimumCapacity()];
+    }
+
+    // Creates a stack that starts with room for initialCapacity items, and
+    // never shrinks below that.
+    public ExpandableArrayStack(int initialCapacity, CapacityPolicy policy) {
+        this(policy.presized(initialCapacity));
+    }
 
     public void push(Object item) {
-        // If the stack is full, double the capacity of the array.
+        // If the stack is full, grow the array.
         if (size == elements.length) {
-            reallocate(elements.length * 2);
+            reallocate(policy.grow(elements.length, size + 1));
         }
         elements[size++] = item;
     }
 
     public Object pop() {
         var topElement = peek();
-        // If the stack is at most 25% full, halve the capacity of the array.
-        if (size <= capacity() / 4 && capacity() > MINIMUM_CAPACITY) {
-            reallocate(elements.length / 2);
-        }
         elements[--size] = null;
+        shrinkIfSparse();
         return topElement;
     }
 
@@ -31,6 +55,43 @@ public class ExpandableArrayStack implements Stack {
         return elements[size - 1];
     }
 
+    @Override
+    public void pushAll(Object[] items, int offset, int length) {
+        Objects.checkFromIndexSize(offset, length, items.length);
+        ensureCapacity(size + length);
+        System.arraycopy(items, offset, elements, size, length);
+        size += length;
+    }
+
+    @Override
+    public int popN(Object[] dest, int n) {
+        Objects.checkFromIndexSize(0, n, dest.length);
+        var count = Math.min(n, size);
+        size -= count;
+        System.arraycopy(elements, size, dest, 0, count);
+        Arrays.fill(elements, size, size + count, null);
+        shrinkIfSparse();
+        return count;
+    }
+
+    // Grows the array, if needed, so that it can hold at least minCapacity
+    // items without growing again.
+    public void ensureCapacity(int minCapacity) {
+        if (minCapacity > elements.length) {
+            reallocate(policy.grow(elements.length, minCapacity));
+        }
+    }
+
+    // Shrinks the array to fit the items on the stack, but not below the
+    // policy's minimum capacity.
+    public void trimToSize() {
+        var newCapacity = Math.max(size, policy.minimumCapacity());
+        if (newCapacity < elements.length) {
+            reallocate(newCapacity);
+        }
+        sparseRemovals = 0;
+    }
+
     @Override
     public boolean isEmpty() {
         return size == 0;
@@ -44,6 +105,21 @@ public class ExpandableArrayStack implements Stack {
         return elements.length;
     }
 
+    public CapacityPolicy policy() {
+        return policy;
+    }
+
+    // Called after every removal. Shrinks the array once enough pops have
+    // found it too sparse, without one finding it full enough in between.
+    private void shrinkIfSparse() {
+        if (!policy.isSparse(size, elements.length)) {
+            sparseRemovals = 0;
+        } else if (++sparseRemovals > policy.shrinkDelay()) {
+            sparseRemovals = 0;
+            reallocate(policy.shrink(size, elements.length));
+        }
+    }
+
     private void reallocate(int newSize) {
         Object[] newArray = new Object[newSize];
         // Copy the elements from the old array to the new array.
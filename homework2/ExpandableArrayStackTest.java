@@ -1,6 +1,7 @@
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.BeforeEach;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 public class ExpandableArrayStackTest extends StackTest {
 
@@ -63,4 +64,114 @@ public class ExpandableArrayStackTest extends StackTest {
             assertEquals(initialCapacity, ((ExpandableArrayStack) s).capacity());
         }
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testBulkTransfersResizeLikeSingleOperations() {
+        var stack = (ExpandableArrayStack) s;
+        int initialCapacity = stack.capacity();
+        var items = new Object[initialCapacity * 3];
+        for (var i = 0; i < items.length; i++) {
+            items[i] = i;
+        }
+        s.pushAll(items, 0, initialCapacity);
+        assertEquals(initialCapacity, stack.capacity());
+        s.pushAll(items, initialCapacity, initialCapacity * 2);
+        assertEquals(initialCapacity * 4, stack.capacity());
+        var dest = new Object[items.length];
+        assertEquals(items.length - 1, s.popN(dest, items.length - 1));
+        for (var i = 0; i < items.length - 1; i++) {
+            assertEquals(i + 1, dest[i]);
+        }
+        assertEquals(initialCapacity, stack.capacity());
+        assertEquals(0, s.pop());
+    }
+
+    @Test
+    public void testShrinkDelayStopsThrashing() {
+        var stack = new ExpandableArrayStack(CapacityPolicy.DEFAULT.withShrinkDelay(3));
+        for (var i = 0; i < 33; i++) {
+            stack.push(i);
+        }
+        for (var i = 0; i < 18; i++) {
+            stack.pop();
+        }
+        // 15 items in 64 slots is sparse, but only one removal has seen that.
+        assertEquals(64, stack.capacity());
+        // Climbing back over the threshold starts the count again.
+        stack.push(1);
+        stack.push(2);
+        stack.pop();
+        for (var i = 0; i < 3; i++) {
+            stack.pop();
+            assertEquals(64, stack.capacity());
+        }
+        stack.pop();
+        assertEquals(32, stack.capacity());
+        assertEquals(12, stack.size());
+    }
+
+    @Test
+    public void testTrickleOfAddsStillShrinks() {
+        var stack = new ExpandableArrayStack(CapacityPolicy.DEFAULT.withShrinkDelay(3));
+        for (var i = 0; i < 1000; i++) {
+            stack.push(i);
+        }
+        assertEquals(1024, stack.capacity());
+        // One add per three removals, fewer than the delay.
+        while (stack.size() > 50) {
+            for (var i = 0; i < 3; i++) {
+                stack.pop();
+            }
+            stack.push(0);
+        }
+        assertEquals(128, stack.capacity());
+    }
+
+    @Test
+    public void testNeverShrink() {
+        var stack = new ExpandableArrayStack(CapacityPolicy.DEFAULT.neverShrink());
+        for (var i = 0; i < 100; i++) {
+            stack.push(i);
+        }
+        while (!stack.isEmpty()) {
+            stack.pop();
+        }
+        assertEquals(128, stack.capacity());
+    }
+
+    @Test
+    public void testPresizingEnsureCapacityAndTrimToSize() {
+        var stack = new ExpandableArrayStack(100);
+        assertEquals(100, stack.capacity());
+        stack.push("abc");
+        stack.pop();
+        assertEquals(100, stack.capacity());
+        stack.ensureCapacity(150);
+        assertEquals(200, stack.capacity());
+        for (var i = 0; i < 120; i++) {
+            stack.push(i);
+        }
+        stack.trimToSize();
+        assertEquals(120, stack.capacity());
+        assertEquals(120, stack.size());
+        stack.push("abc");
+        assertEquals(240, stack.capacity());
+        while (stack.size() > 3) {
+            stack.pop();
+        }
+        stack.trimToSize();
+        assertEquals(100, stack.capacity());
+        assertThrows(IllegalArgumentException.class, () -> new ExpandableArrayStack(-1));
+    }
+
+    @Test
+    public void testMaximumCapacity() {
+        var stack = new ExpandableArrayStack(CapacityPolicy.DEFAULT.withMaximumCapacity(20));
+        for (var i = 0; i < 20; i++) {
+            stack.push(i);
+        }
+        assertEquals(20, stack.capacity());
+        assertThrows(IllegalStateException.class, () -> stack.push("abc"));
+        assertEquals(20, stack.size());
+    }
+}
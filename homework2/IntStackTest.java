@@ -0,0 +1,70 @@
+import java.util.NoSuchElementException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.BeforeEach;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class IntStackTest {
+
+    private IntStack s;
+
+    @BeforeEach
+    public void makeIntStack() {
+        s = new IntStack();
+    }
+
+    @Test
+    public void testNewStackIsEmpty() {
+        assertTrue(s.isEmpty());
+        assertEquals(0, s.size());
+    }
+
+    @Test
+    public void testPushesAndPopsInLastInFirstOutOrder() {
+        for (var i = 0; i < 100; i++) {
+            s.push(i);
+        }
+        assertFalse(s.isEmpty());
+        assertEquals(100, s.size());
+        for (var i = 99; i >= 0; i--) {
+            assertEquals(i, s.peekInt());
+            assertEquals(i, s.popInt());
+        }
+        assertTrue(s.isEmpty());
+    }
+
+    @Test
+    public void testPopAndPeekOnEmptyStackThrow() {
+        assertThrows(NoSuchElementException.class, () -> s.popInt());
+        assertThrows(NoSuchElementException.class, () -> s.peekInt());
+    }
+
+    @Test
+    public void testGrowsAndShrinksLikeExpandableArrayStack() {
+        var reference = new ExpandableArrayStack();
+        for (var i = 0; i < 16 * 4 + 1; i++) {
+            s.push(i);
+            reference.push(i);
+            assertEquals(reference.capacity(), s.capacity());
+        }
+        while (!s.isEmpty()) {
+            s.popInt();
+            reference.pop();
+            assertEquals(reference.capacity(), s.capacity());
+        }
+    }
+
+    @Test
+    public void testStackView() {
+        var view = s.asStack();
+        view.push(7);
+        s.push(8);
+        assertEquals(2, view.size());
+        assertEquals((Integer) 8, view.pop());
+        assertEquals((Integer) 7, view.peek());
+        assertThrows(ClassCastException.class, () -> view.push("abc"));
+        assertEquals(1, view.size());
+    }
+}
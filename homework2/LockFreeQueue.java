@@ -0,0 +1,157 @@
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A thread-safe, lock-free queue, using the Michael-Scott algorithm: a singly
+ * linked list with a dummy node at the front, where the head and tail
+ * pointers and the tail node's next link are only ever changed with
+ * compare-and-set. No thread ever waits for another to release a lock; a
+ * thread that finds the tail lagging behind simply helps swing it forward.
+ *
+ * The size is kept in a LongAdder, so updating it does not become a new point
+ * of contention. This makes size() cheap but approximate while other threads
+ * are enqueuing or dequeuing: it is exact whenever the queue is quiescent.
+ * isEmpty() is exact at the moment it reads the list.
+ */
+public class LockFreeQueue implements Queue {
+
+    private static class Node {
+        // Volatile so that clearing it after a dequeue is seen by peek.
+        volatile Object item;
+        volatile Node next;
+
+        Node(Object item) {
+            this.item = item;
+        }
+    }
+
+    private static final Object EMPTY = new Object();
+
+    private static final VarHandle HEAD;
+    private static final VarHandle TAIL;
+    private static final VarHandle NEXT;
+
+    static {
+        try {
+            var lookup = MethodHandles.lookup();
+            HEAD = lookup.findVarHandle(LockFreeQueue.class, "head", Node.class);
+            TAIL = lookup.findVarHandle(LockFreeQueue.class, "tail", Node.class);
+            NEXT = lookup.findVarHandle(Node.class, "next", Node.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    // The head is always a dummy node; the front item is in head.next.
+    private volatile Node head = new Node(null);
+    private volatile Node tail = head;
+    private final LongAdder size = new LongAdder();
+
+    @Override
+    public void enqueue(Object item) {
+        var node = new Node(item);
+        while (true) {
+            var last = tail;
+            var next = last.next;
+            if (last != tail) {
+                continue;
+            }
+            if (next == null) {
+                // Link the node after the last one, then try to swing the tail
+                // to it. If that fails, another thread has already helped.
+                if (NEXT.compareAndSet(last, null, node)) {
+                    TAIL.compareAndSet(this, last, node);
+                    size.increment();
+                    return;
+                }
+            } else {
+                // The tail is lagging behind, so help move it along.
+                TAIL.compareAndSet(this, last, next);
+            }
+        }
+    }
+
+    @Override
+    public Object dequeue() {
+        var item = poll();
+        if (item == EMPTY) {
+            throw new NoSuchElementException();
+        }
+        return item;
+    }
+
+    // Checking isEmpty before each dequeue would race with other consumers,
+    // so this polls directly and stops at the first miss.
+    @Override
+    public int drainTo(Object[] dest, int max) {
+        Objects.checkFromIndexSize(0, max, dest.length);
+        var count = 0;
+        while (count < max) {
+            var item = poll();
+            if (item == EMPTY) {
+                break;
+            }
+            dest[count++] = item;
+        }
+        return count;
+    }
+
+    // Removes and returns the front item, or EMPTY if there is none. A
+    // sentinel is needed because null is a legal item.
+    private Object poll() {
+        while (true) {
+            var first = head;
+            var last = tail;
+            var next = first.next;
+            if (first != head) {
+                continue;
+            }
+            if (first == last) {
+                if (next == null) {
+                    return EMPTY;
+                }
+                // An enqueue is half done, so finish moving the tail first.
+                TAIL.compareAndSet(this, last, next);
+            } else {
+                var item = next.item;
+                if (HEAD.compareAndSet(this, first, next)) {
+                    // next is the new dummy node, so drop its reference to the
+                    // item to let it be garbage collected.
+                    next.item = null;
+                    size.decrement();
+                    return item;
+                }
+            }
+        }
+    }
+
+    @Override
+    public Object peek() {
+        while (true) {
+            var first = head;
+            var next = first.next;
+            if (next == null) {
+                throw new NoSuchElementException();
+            }
+            var item = next.item;
+            // If the head has not moved, the item was not yet dequeued (and
+            // cleared) when we read it.
+            if (first == head) {
+                return item;
+            }
+        }
+    }
+
+    @Override
+    public int size() {
+        return (int) Math.max(0, Math.min(Integer.MAX_VALUE, size.sum()));
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return head.next == null;
+    }
+}
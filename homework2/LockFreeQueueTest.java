@@ -0,0 +1,78 @@
+import java.util.ArrayList;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.BeforeEach;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class LockFreeQueueTest extends QueueTest {
+
+    @BeforeEach
+    public void makeLockFreeQueue() {
+        q = new LockFreeQueue();
+    }
+
+    @Test
+    public void testNullItemsAreAllowed() {
+        q.enqueue(null);
+        q.enqueue("abc");
+        assertNull(q.peek());
+        assertNull(q.dequeue());
+        assertEquals("abc", q.dequeue());
+    }
+
+    @Test
+    public void testConcurrentEnqueueAndDequeue() throws InterruptedException {
+        var threads = 8;
+        var perThread = 20_000;
+        var seen = ConcurrentHashMap.<Integer>newKeySet();
+        var duplicates = new AtomicInteger();
+        var workers = new ArrayList<Thread>();
+        for (var t = 0; t < threads; t++) {
+            var id = t;
+            workers.add(new Thread(() -> {
+                // Each dequeue follows this thread's own enqueue, so the queue
+                // is never empty when we dequeue.
+                for (var i = 0; i < perThread; i++) {
+                    q.enqueue(id * perThread + i);
+                    if (!seen.add((Integer) q.dequeue())) {
+                        duplicates.incrementAndGet();
+                    }
+                }
+            }));
+        }
+        workers.forEach(Thread::start);
+        for (var worker : workers) {
+            worker.join();
+        }
+        assertEquals(0, duplicates.get());
+        assertEquals(threads * perThread, seen.size());
+        assertTrue(q.isEmpty());
+        assertEquals(0, q.size());
+    }
+
+    @Test
+    public void testEachProducersItemsStayInOrder() throws InterruptedException {
+        var producers = new ArrayList<Thread>();
+        for (var t = 0; t < 4; t++) {
+            var id = t;
+            producers.add(new Thread(() -> {
+                for (var i = 0; i < 10_000; i++) {
+                    q.enqueue(new int[] { id, i });
+                }
+            }));
+        }
+        producers.forEach(Thread::start);
+        for (var producer : producers) {
+            producer.join();
+        }
+        assertEquals(40_000, q.size());
+        var next = new int[4];
+        while (!q.isEmpty()) {
+            var item = (int[]) q.dequeue();
+            assertEquals(next[item[0]]++, item[1]);
+        }
+    }
+}
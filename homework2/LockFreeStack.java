@@ -0,0 +1,171 @@
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A thread-safe, lock-free stack: a Treiber stack with an elimination-backoff
+ * array. The stack itself is a singly linked list whose top pointer is only
+ * changed with compare-and-set. Under contention that one pointer becomes the
+ * bottleneck, so a thread whose compare-and-set fails backs off into the
+ * elimination array instead of retrying straight away. There, a push and a pop
+ * that meet in the same slot hand the item over directly and both finish
+ * without touching the top pointer at all; a push followed immediately by a
+ * pop leaves the stack as it was, so this is still a correct stack.
+ *
+ * As in LockFreeQueue, the size is kept in a LongAdder, so size() is cheap but
+ * only exact when the stack is quiescent. isEmpty() is always exact.
+ */
+public class LockFreeStack implements Stack {
+
+    private static class Node {
+        final Object item;
+        Node next;
+
+        Node(Object item) {
+            this.item = item;
+        }
+    }
+
+    // A thread waiting in the elimination array. For a push, node is the node
+    // it wants to push; for a pop, node is null. A partner fills in match.
+    private static class Offer {
+        final Node node;
+        volatile Object match;
+
+        Offer(Node node) {
+            this.node = node;
+        }
+    }
+
+    // What a pop puts in a waiting push's match, to say it took the item.
+    private static final Object TAKEN = new Object();
+
+    // How long a thread waits in the elimination array for a partner.
+    private static final int ELIMINATION_SPINS = 128;
+
+    private static final VarHandle TOP;
+    private static final VarHandle SLOT = MethodHandles.arrayElementVarHandle(Offer[].class);
+
+    static {
+        try {
+            TOP = MethodHandles.lookup().findVarHandle(LockFreeStack.class, "top", Node.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private volatile Node top;
+    private final Offer[] eliminationArray;
+    private final LongAdder size = new LongAdder();
+
+    // Creates a stack with one elimination slot for every two processors.
+    public LockFreeStack() {
+        this(Math.max(1, Runtime.getRuntime().availableProcessors() / 2));
+    }
+
+    // Creates a stack with the given number of elimination slots. With none,
+    // this is a plain Treiber stack.
+    public LockFreeStack(int eliminationSlots) {
+        if (eliminationSlots < 0) {
+            throw new IllegalArgumentException("Number of elimination slots cannot be negative");
+        }
+        eliminationArray = new Offer[eliminationSlots];
+    }
+
+    @Override
+    public void push(Object item) {
+        var node = new Node(item);
+        while (true) {
+            var first = top;
+            node.next = first;
+            if (TOP.compareAndSet(this, first, node)) {
+                size.increment();
+                return;
+            }
+            if (eliminate(node) != null) {
+                return;
+            }
+        }
+    }
+
+    @Override
+    public Object pop() {
+        while (true) {
+            var first = top;
+            if (first == null) {
+                throw new NoSuchElementException();
+            }
+            if (TOP.compareAndSet(this, first, first.next)) {
+                size.decrement();
+                return first.item;
+            }
+            var match = eliminate(null);
+            if (match != null) {
+                return ((Node) match).item;
+            }
+        }
+    }
+
+    @Override
+    public Object peek() {
+        var first = top;
+        if (first == null) {
+            throw new NoSuchElementException();
+        }
+        return first.item;
+    }
+
+    @Override
+    public int size() {
+        return (int) Math.max(0, Math.min(Integer.MAX_VALUE, size.sum()));
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return top == null;
+    }
+
+    // Tries to meet a partner in a random slot of the elimination array. A
+    // push passes its node and a pop passes null. Returns null if no partner
+    // turned up; otherwise a pop gets the pushed node and a push gets TAKEN.
+    private Object eliminate(Node node) {
+        if (eliminationArray.length == 0) {
+            return null;
+        }
+        var slot = ThreadLocalRandom.current().nextInt(eliminationArray.length);
+        var waiting = (Offer) SLOT.getVolatile(eliminationArray, slot);
+        if (waiting != null) {
+            // Pair up with the waiting thread if it wants the opposite
+            // operation and nobody else gets to it first.
+            if ((waiting.node == null) != (node == null) && SLOT.compareAndSet(eliminationArray, slot, waiting, null)) {
+                waiting.match = node == null ? TAKEN : node;
+                return node == null ? waiting.node : TAKEN;
+            }
+            return null;
+        }
+        var offer = new Offer(node);
+        if (!SLOT.compareAndSet(eliminationArray, slot, null, offer)) {
+            return null;
+        }
+        for (var i = 0; i < ELIMINATION_SPINS; i++) {
+            var match = offer.match;
+            if (match != null) {
+                return match;
+            }
+            Thread.onSpinWait();
+        }
+        if (SLOT.compareAndSet(eliminationArray, slot, offer, null)) {
+            return null;
+        }
+        // A partner removed the offer just as we gave up, so it is about to
+        // fill in the match. Yield rather than spin, in case it has been
+        // descheduled in between.
+        Object match;
+        while ((match = offer.match) == null) {
+            Thread.yield();
+        }
+        return match;
+    }
+}
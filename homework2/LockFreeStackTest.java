@@ -0,0 +1,91 @@
+import java.util.ArrayList;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.BeforeEach;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class LockFreeStackTest extends StackTest {
+
+    @BeforeEach
+    public void makeLockFreeStack() {
+        s = new LockFreeStack();
+    }
+
+    @Test
+    public void testNullItemsAreAllowed() {
+        s.push("abc");
+        s.push(null);
+        assertNull(s.peek());
+        assertNull(s.pop());
+        assertEquals("abc", s.pop());
+    }
+
+    @Test
+    public void testNegativeEliminationSlotsAreRejected() {
+        assertThrows(IllegalArgumentException.class, () -> new LockFreeStack(-1));
+    }
+
+    @Test
+    public void testConcurrentPushAndPop() throws InterruptedException {
+        // One slot, so that pushes and pops often meet in it.
+        checkConcurrentPushAndPop(new LockFreeStack(1));
+        checkConcurrentPushAndPop(new LockFreeStack(0));
+    }
+
+    private void checkConcurrentPushAndPop(LockFreeStack stack) throws InterruptedException {
+        var threads = 8;
+        var perThread = 20_000;
+        var seen = ConcurrentHashMap.<Integer>newKeySet();
+        var duplicates = new AtomicInteger();
+        var workers = new ArrayList<Thread>();
+        for (var t = 0; t < threads; t++) {
+            var id = t;
+            workers.add(new Thread(() -> {
+                // Each pop follows this thread's own push, so the stack is
+                // never empty when we pop.
+                for (var i = 0; i < perThread; i++) {
+                    stack.push(id * perThread + i);
+                    if (!seen.add((Integer) stack.pop())) {
+                        duplicates.incrementAndGet();
+                    }
+                }
+            }));
+        }
+        workers.forEach(Thread::start);
+        for (var worker : workers) {
+            worker.join();
+        }
+        assertEquals(0, duplicates.get());
+        assertEquals(threads * perThread, seen.size());
+        assertTrue(stack.isEmpty());
+        assertEquals(0, stack.size());
+    }
+
+    @Test
+    public void testConcurrentPushesAreAllKept() throws InterruptedException {
+        var pushers = new ArrayList<Thread>();
+        for (var t = 0; t < 4; t++) {
+            var id = t;
+            pushers.add(new Thread(() -> {
+                for (var i = 0; i < 10_000; i++) {
+                    s.push(new int[] { id, i });
+                }
+            }));
+        }
+        pushers.forEach(Thread::start);
+        for (var pusher : pushers) {
+            pusher.join();
+        }
+        assertEquals(40_000, s.size());
+        // Each thread's items come off in the reverse order it pushed them.
+        var next = new int[] { 9_999, 9_999, 9_999, 9_999 };
+        while (!s.isEmpty()) {
+            var item = (int[]) s.pop();
+            assertEquals(next[item[0]]--, item[1]);
+        }
+    }
+}
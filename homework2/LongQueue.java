@@ -0,0 +1,160 @@
+import java.util.NoSuchElementException;
+
+// A queue of longs with the same growth and shrinking rules as
+// ExpandableArrayQueue, but backed by a long[] so nothing is ever boxed. The
+// capacity is always a power of two, so wrapping around the circular array is
+// a bit mask rather than a % (which would be a division).
+public class LongQueue {
+    // The minimum capacity of the array, which must be a power of two.
+    private static final int MINIMUM_CAPACITY = 16;
+    // The largest power of two that an array can have as its length.
+    private static final int MAXIMUM_CAPACITY = 1 << 30;
+
+    // The array used to store the queue elements.
+    private long[] elements = new long[MINIMUM_CAPACITY];
+    // Always elements.length - 1, for wrapping indices around the array.
+    private int mask = MINIMUM_CAPACITY - 1;
+    // The number of elements currently in the queue.
+    private int size = 0;
+    // The index of the current front item, if one exists.
+    private int head = 0;
+    // The index of the next item to be added.
+    private int tail = 0;
+
+    // Adds an item to the back of the queue.
+    public void enqueue(long item) {
+        // If the queue is full, double the capacity of the array.
+        if (size == elements.length) {
+            reallocate(grownCapacity(size + 1L));
+        }
+        elements[tail] = item;
+        tail = (tail + 1) & mask;
+        size++;
+    }
+
+    // Removes and returns the front item from the queue.
+    public long dequeueLong() {
+        var frontElement = peekLong();
+        // If the queue is at most 25% full, halve the capacity of the array.
+        if (size <= capacity() / 4 && capacity() > MINIMUM_CAPACITY) {
+            reallocate(elements.length / 2);
+        }
+        head = (head + 1) & mask;
+        size--;
+        return frontElement;
+    }
+
+    // Returns the front item from the queue without removing it.
+    public long peekLong() {
+        if (isEmpty()) {
+            throw new NoSuchElementException();
+        }
+        return elements[head];
+    }
+
+    // Adds items[offset] through items[offset + length - 1] to the back of the
+    // queue, in order, growing at most once.
+    public void enqueueAll(long[] items, int offset, int length) {
+        if (offset < 0 || length < 0 || offset > items.length - length) {
+            throw new IndexOutOfBoundsException();
+        }
+        if (elements.length - size < length) {
+            reallocate(grownCapacity((long) size + length));
+        }
+        // The free space may wrap around the end of the array, so this takes
+        // at most two copies.
+        var firstPart = Math.min(length, elements.length - tail);
+        System.arraycopy(items, offset, elements, tail, firstPart);
+        System.arraycopy(items, offset + firstPart, elements, 0, length - firstPart);
+        tail = (tail + length) & mask;
+        size += length;
+    }
+
+    // Removes up to max items from the front of the queue into dest, starting
+    // at dest[offset], and returns how many were removed.
+    public int drainTo(long[] dest, int offset, int max) {
+        if (offset < 0 || max < 0 || offset > dest.length - max) {
+            throw new IndexOutOfBoundsException();
+        }
+        var count = Math.min(max, size);
+        var firstPart = Math.min(count, elements.length - head);
+        System.arraycopy(elements, head, dest, offset, firstPart);
+        System.arraycopy(elements, 0, dest, offset + firstPart, count - firstPart);
+        head = (head + count) & mask;
+        size -= count;
+        // Shrink as far as repeated dequeues would have.
+        var newCapacity = elements.length;
+        while (size < newCapacity / 4 && newCapacity > MINIMUM_CAPACITY) {
+            newCapacity /= 2;
+        }
+        if (newCapacity != elements.length) {
+            reallocate(newCapacity);
+        }
+        return count;
+    }
+
+    // Returns true if the queue is empty, and false otherwise.
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    // Returns the number of items currently in the queue.
+    public int size() {
+        return size;
+    }
+
+    // Returns the current capacity of the array used to store the queue elements.
+    public int capacity() {
+        return elements.length;
+    }
+
+    // Returns a view of this queue through the Queue interface, for code that
+    // needs one. Every enqueue and dequeue through the view boxes or unboxes,
+    // and enqueuing anything other than a Long throws a ClassCastException.
+    public Queue asQueue() {
+        return new Queue() {
+            public void enqueue(Object item) {
+                LongQueue.this.enqueue((Long) item);
+            }
+
+            public Object dequeue() {
+                return dequeueLong();
+            }
+
+            public Object peek() {
+                return peekLong();
+            }
+
+            public int size() {
+                return size;
+            }
+        };
+    }
+
+    // Returns the capacity to grow to, doubling until there is room for
+    // required items. Taken as a long, so that size + length cannot overflow.
+    private int grownCapacity(long required) {
+        if (required > MAXIMUM_CAPACITY) {
+            throw new IllegalStateException("Capacity cannot exceed " + MAXIMUM_CAPACITY);
+        }
+        var capacity = elements.length;
+        while (capacity < required) {
+            capacity *= 2;
+        }
+        return capacity;
+    }
+
+    // Reallocates the array to the given capacity, which must be a power of
+    // two, moving the head to index 0. The elements may wrap around the end of
+    // the old array, so this takes at most two copies.
+    private void reallocate(int newCapacity) {
+        long[] newArray = new long[newCapacity];
+        var firstPart = Math.min(size, elements.length - head);
+        System.arraycopy(elements, head, newArray, 0, firstPart);
+        System.arraycopy(elements, 0, newArray, firstPart, size - firstPart);
+        head = 0;
+        tail = size & (newCapacity - 1);
+        elements = newArray;
+        mask = newCapacity - 1;
+    }
+}
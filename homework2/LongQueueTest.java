@@ -0,0 +1,105 @@
+import java.util.NoSuchElementException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.BeforeEach;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class LongQueueTest {
+
+    private LongQueue q;
+
+    // Values too big for an int, so nothing can be truncated unnoticed.
+    private static final long BIG = 10_000_000_000L;
+
+    @BeforeEach
+    public void makeLongQueue() {
+        q = new LongQueue();
+    }
+
+    @Test
+    public void testNewQueueIsEmpty() {
+        assertTrue(q.isEmpty());
+        assertEquals(0, q.size());
+        assertEquals(16, q.capacity());
+    }
+
+    @Test
+    public void testFirstInFirstOutAcrossTheWrap() {
+        // Keep the queue half full while the head goes round several times
+        for (var i = 0; i < 8; i++) {
+            q.enqueue(i * BIG);
+        }
+        for (var i = 8; i < 100; i++) {
+            q.enqueue(i * BIG);
+            assertEquals((i - 8) * BIG, q.peekLong());
+            q.dequeueLong();
+        }
+        assertEquals(16, q.capacity());
+        assertEquals(8, q.size());
+    }
+
+    @Test
+    public void testDequeueAndPeekOnEmptyQueueThrow() {
+        assertThrows(NoSuchElementException.class, () -> q.dequeueLong());
+        assertThrows(NoSuchElementException.class, () -> q.peekLong());
+    }
+
+    @Test
+    public void testGrowsAndShrinksLikeExpandableArrayQueue() {
+        for (var i = 0; i < 16 * 4 + 1; i++) {
+            q.enqueue(i * BIG);
+        }
+        assertEquals(16 * 8, q.capacity());
+        for (var i = 0; i < 16 * 2 + 1; i++) {
+            assertEquals(i * BIG, q.dequeueLong());
+        }
+        assertEquals(16 * 2, q.size());
+        assertEquals(16 * 8, q.capacity());
+        q.dequeueLong();
+        assertEquals(16 * 4, q.capacity());
+    }
+
+    @Test
+    public void testBulkOperationsAcrossTheWrap() {
+        for (var i = 0; i < 12; i++) {
+            q.enqueue(-1);
+        }
+        long[] skipped = new long[12];
+        assertEquals(12, q.drainTo(skipped, 0, 12));
+        long[] items = new long[50];
+        for (var i = 0; i < items.length; i++) {
+            items[i] = i * BIG;
+        }
+        // Ten items wrap around the end of the 16 element array
+        q.enqueueAll(items, 0, 10);
+        assertEquals(16, q.capacity());
+        // Forty more force it to grow
+        q.enqueueAll(items, 10, 40);
+        assertEquals(50, q.size());
+        assertEquals(64, q.capacity());
+        long[] dest = new long[52];
+        assertEquals(20, q.drainTo(dest, 2, 20));
+        assertEquals(30, q.drainTo(dest, 22, 30));
+        for (var i = 0; i < items.length; i++) {
+            assertEquals(items[i], dest[i + 2]);
+        }
+        assertTrue(q.isEmpty());
+        assertEquals(16, q.capacity());
+        assertEquals(0, q.drainTo(dest, 0, 5));
+        assertThrows(IndexOutOfBoundsException.class, () -> q.enqueueAll(items, 45, 10));
+        assertThrows(IndexOutOfBoundsException.class, () -> q.drainTo(dest, 50, 3));
+    }
+
+    @Test
+    public void testQueueView() {
+        var view = q.asQueue();
+        view.enqueue(7L);
+        q.enqueue(8L);
+        assertEquals(2, view.size());
+        assertEquals(7L, view.dequeue());
+        assertEquals(8L, view.peek());
+        assertThrows(ClassCastException.class, () -> view.enqueue("abc"));
+        assertEquals(1, view.size());
+    }
+}
@@ -0,0 +1,77 @@
+import java.util.NoSuchElementException;
+
+// A stack of longs with the same growth and shrinking rules as
+// ExpandableArrayStack, but backed by a long[] so nothing is ever boxed.
+public class LongStack {
+    private static final int MINIMUM_CAPACITY = 16;
+
+    private long[] elements = new long[MINIMUM_CAPACITY];
+    private int size = 0;
+
+    public void push(long item) {
+        // If the stack is full, double the capacity of the array.
+        if (size == elements.length) {
+            reallocate(elements.length * 2);
+        }
+        elements[size++] = item;
+    }
+
+    public long popLong() {
+        var topElement = peekLong();
+        // If the stack is at most 25% full, halve the capacity of the array.
+        if (size <= capacity() / 4 && capacity() > MINIMUM_CAPACITY) {
+            reallocate(elements.length / 2);
+        }
+        size--;
+        return topElement;
+    }
+
+    public long peekLong() {
+        if (isEmpty()) {
+            throw new NoSuchElementException();
+        }
+        return elements[size - 1];
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int capacity() {
+        return elements.length;
+    }
+
+    // Returns a view of this stack through the Stack interface, for code that
+    // needs one. Every push and pop through the view boxes or unboxes, and
+    // pushing anything other than a Long throws a ClassCastException.
+    public Stack asStack() {
+        return new Stack() {
+            public void push(Object item) {
+                LongStack.this.push((Long) item);
+            }
+
+            public Object pop() {
+                return popLong();
+            }
+
+            public Object peek() {
+                return peekLong();
+            }
+
+            public int size() {
+                return size;
+            }
+        };
+    }
+
+    private void reallocate(int newSize) {
+        long[] newArray = new long[newSize];
+        // Copy the elements from the old array to the new array.
+        System.arraycopy(elements, 0, newArray, 0, size);
+        elements = newArray;
+    }
+}
@@ -0,0 +1,70 @@
+import java.util.NoSuchElementException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.BeforeEach;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class LongStackTest {
+
+    private LongStack s;
+
+    @BeforeEach
+    public void makeLongStack() {
+        s = new LongStack();
+    }
+
+    @Test
+    public void testNewStackIsEmpty() {
+        assertTrue(s.isEmpty());
+        assertEquals(0, s.size());
+    }
+
+    @Test
+    public void testPushesAndPopsInLastInFirstOutOrder() {
+        for (var i = 0; i < 100; i++) {
+            s.push(i * 10_000_000_000L);
+        }
+        assertFalse(s.isEmpty());
+        assertEquals(100, s.size());
+        for (var i = 99; i >= 0; i--) {
+            assertEquals(i * 10_000_000_000L, s.peekLong());
+            assertEquals(i * 10_000_000_000L, s.popLong());
+        }
+        assertTrue(s.isEmpty());
+    }
+
+    @Test
+    public void testPopAndPeekOnEmptyStackThrow() {
+        assertThrows(NoSuchElementException.class, () -> s.popLong());
+        assertThrows(NoSuchElementException.class, () -> s.peekLong());
+    }
+
+    @Test
+    public void testGrowsAndShrinksLikeExpandableArrayStack() {
+        var reference = new ExpandableArrayStack();
+        for (var i = 0; i < 16 * 4 + 1; i++) {
+            s.push(i * 10_000_000_000L);
+            reference.push(i);
+            assertEquals(reference.capacity(), s.capacity());
+        }
+        while (!s.isEmpty()) {
+            s.popLong();
+            reference.pop();
+            assertEquals(reference.capacity(), s.capacity());
+        }
+    }
+
+    @Test
+    public void testStackView() {
+        var view = s.asStack();
+        view.push(7L);
+        s.push(8L);
+        assertEquals(2, view.size());
+        assertEquals(8L, view.pop());
+        assertEquals(7L, view.peek());
+        assertThrows(ClassCastException.class, () -> view.push("abc"));
+        assertEquals(1, view.size());
+    }
+}
@@ -0,0 +1,74 @@
+/**
+ * A bounded, lock-free queue for any number of producer threads and a single
+ * consumer thread. Producers claim a slot by advancing tail with
+ * compare-and-set, then publish the item into it with a release store. The
+ * consumer never reads tail unless the front slot is empty: a non-null slot
+ * (read with an acquire load) is itself the sign that an item is ready.
+ * Producers share a cached copy of head and only re-read the real one when the
+ * ring looks full.
+ *
+ * Any thread may call enqueue and offer, but only one thread may call dequeue,
+ * poll and peek.
+ */
+public class MpscRingQueue extends PaddedRingQueue {
+
+    public MpscRingQueue(int capacity) {
+        super(capacity);
+    }
+
+    @Override
+    public boolean offer(Object item) {
+        checkNotNull(item);
+        long last;
+        do {
+            last = (long) TAIL.getVolatile(this);
+            // The cached head is shared by all producers, and may be stale,
+            // but it is never ahead of the real head, so at worst we re-read.
+            if (last - (long) CACHED_HEAD.getOpaque(this) >= buffer.length) {
+                var first = (long) HEAD.getAcquire(this);
+                CACHED_HEAD.setOpaque(this, first);
+                if (last - first >= buffer.length) {
+                    return false;
+                }
+            }
+        } while (!TAIL.compareAndSet(this, last, last + 1));
+        SLOT.setRelease(buffer, (int) last & mask, item);
+        return true;
+    }
+
+    @Override
+    public Object poll() {
+        var first = (long) HEAD.get(this);
+        var index = (int) first & mask;
+        var item = frontSlot(first, index);
+        if (item == null) {
+            return null;
+        }
+        // Clear the slot before releasing it to the producers.
+        buffer[index] = null;
+        HEAD.setRelease(this, first + 1);
+        return item;
+    }
+
+    @Override
+    Object front() {
+        var first = (long) HEAD.get(this);
+        return frontSlot(first, (int) first & mask);
+    }
+
+    private Object frontSlot(long first, int index) {
+        var item = SLOT.getAcquire(buffer, index);
+        if (item == null) {
+            if (first == (long) TAIL.getVolatile(this)) {
+                return null;
+            }
+            // A producer has claimed the slot but not filled it yet, which
+            // only takes a moment.
+            do {
+                Thread.onSpinWait();
+                item = SLOT.getAcquire(buffer, index);
+            } while (item == null);
+        }
+        return item;
+    }
+}
@@ -0,0 +1,42 @@
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.BeforeEach;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class MpscRingQueueTest extends RingQueueTest {
+
+    @BeforeEach
+    public void makeMpscRingQueue() {
+        q = newRing(64);
+    }
+
+    @Override
+    protected PaddedRingQueue newRing(int capacity) {
+        return new MpscRingQueue(capacity);
+    }
+
+    @Test
+    public void testManyProducersAndOneConsumer() throws InterruptedException {
+        var ring = newRing(16);
+        var producers = 4;
+        var perProducer = 200_000;
+        var threads = new Thread[producers];
+        for (var p = 0; p < producers; p++) {
+            var items = new Object[perProducer];
+            for (var i = 0; i < perProducer; i++) {
+                items[i] = new int[] { p, i };
+            }
+            threads[p] = startProducer(ring, items);
+        }
+        // Every producer's items must arrive complete and in order
+        var next = new int[producers];
+        for (var received = 0; received < producers * perProducer; received++) {
+            var pair = (int[]) take(ring);
+            assertEquals(next[pair[0]]++, pair[1]);
+        }
+        for (var thread : threads) {
+            thread.join();
+        }
+        assertTrue(ring.isEmpty());
+    }
+}
@@ -0,0 +1,151 @@
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+
+// The fields of PaddedRingQueue are spread over this chain of superclasses
+// because the JVM lays out superclass fields first, in order, but is free to
+// reorder fields within one class. The 56 bytes of padding on each side keep
+// the producer's and consumer's fields on different cache lines, so a write by
+// one thread does not invalidate the line the other is reading (false sharing).
+
+abstract class RingQueuePadding0 {
+    long p00, p01, p02, p03, p04, p05, p06;
+}
+
+abstract class RingQueueProducerFields extends RingQueuePadding0 {
+    // The index of the next slot to fill. Only producers write it.
+    volatile long tail;
+    // A possibly stale copy of head, which producers refresh only when the
+    // ring looks full, so they rarely touch the consumer's cache line.
+    long cachedHead;
+}
+
+abstract class RingQueuePadding1 extends RingQueueProducerFields {
+    long p10, p11, p12, p13, p14, p15, p16;
+}
+
+abstract class RingQueueConsumerFields extends RingQueuePadding1 {
+    // The index of the next slot to empty. Only the consumer writes it.
+    volatile long head;
+    // A possibly stale copy of tail, which the consumer refreshes only when
+    // the ring looks empty.
+    long cachedTail;
+}
+
+abstract class RingQueuePadding2 extends RingQueueConsumerFields {
+    long p20, p21, p22, p23, p24, p25, p26;
+}
+
+/**
+ * The shared parts of the bounded, lock-free ring-buffer queues. The ring is
+ * an array whose length is a power of two, indexed by ever-increasing head and
+ * tail counters masked down to the array size. There is exactly one consumer
+ * thread, which is the only one allowed to dequeue, poll or peek.
+ *
+ * Since the queue is bounded, enqueue throws an IllegalStateException when it
+ * is full; use offer to find out instead. Null items are not allowed, so poll
+ * can return null for an empty queue. size() is exact when the queue is
+ * quiescent and approximate (but within [0, capacity]) otherwise.
+ */
+abstract class PaddedRingQueue extends RingQueuePadding2 implements Queue {
+
+    static final VarHandle HEAD;
+    static final VarHandle TAIL;
+    static final VarHandle CACHED_HEAD;
+    static final VarHandle SLOT = MethodHandles.arrayElementVarHandle(Object[].class);
+
+    static {
+        try {
+            var lookup = MethodHandles.lookup();
+            HEAD = lookup.findVarHandle(RingQueueConsumerFields.class, "head", long.class);
+            TAIL = lookup.findVarHandle(RingQueueProducerFields.class, "tail", long.class);
+            CACHED_HEAD = lookup.findVarHandle(RingQueueProducerFields.class, "cachedHead", long.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    final Object[] buffer;
+    final int mask;
+
+    // The capacity is rounded up to a power of two.
+    PaddedRingQueue(int capacity) {
+        if (capacity < 1 || capacity > 1 << 30) {
+            throw new IllegalArgumentException("Capacity must be between 1 and 2^30");
+        }
+        var length = 1;
+        while (length < capacity) {
+            length *= 2;
+        }
+        buffer = new Object[length];
+        mask = length - 1;
+    }
+
+    // Adds the item to the back of the queue if there is room, and returns
+    // whether it did.
+    public abstract boolean offer(Object item);
+
+    // Removes and returns the front item, or returns null if the queue is
+    // empty. Consumer thread only.
+    public abstract Object poll();
+
+    // Returns the front item, or null if the queue is empty. Consumer thread only.
+    abstract Object front();
+
+    @Override
+    public void enqueue(Object item) {
+        if (!offer(item)) {
+            throw new IllegalStateException("Queue is full");
+        }
+    }
+
+    @Override
+    public Object dequeue() {
+        var item = poll();
+        if (item == null) {
+            throw new NoSuchElementException();
+        }
+        return item;
+    }
+
+    @Override
+    public Object peek() {
+        var item = front();
+        if (item == null) {
+            throw new NoSuchElementException();
+        }
+        return item;
+    }
+
+    // Polls until the queue is empty or max items have been taken, rather than
+    // checking isEmpty before each dequeue. Consumer thread only.
+    @Override
+    public int drainTo(Object[] dest, int max) {
+        Objects.checkFromIndexSize(0, max, dest.length);
+        var count = 0;
+        Object item;
+        while (count < max && (item = poll()) != null) {
+            dest[count++] = item;
+        }
+        return count;
+    }
+
+    @Override
+    public int size() {
+        // Read head first: it can only have grown by the time we read tail.
+        var first = head;
+        var last = tail;
+        return (int) Math.max(0, Math.min(buffer.length, last - first));
+    }
+
+    public int capacity() {
+        return buffer.length;
+    }
+
+    static void checkNotNull(Object item) {
+        if (item == null) {
+            throw new NullPointerException("Ring queues cannot hold null");
+        }
+    }
+}
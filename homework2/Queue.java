@@ -1,3 +1,5 @@
+import java.util.Objects;
+
 /**
  * A small queue interface. You can query the size of the queue and ask whether
  * it is empty, add and remove items, and peek at the front item.
@@ -23,6 +25,35 @@ public interface Queue {
      */
     Object peek();
 
+    /**
+     * Adds items[offset] through items[offset + length - 1] to the rear of the
+     * queue, in order.
+     * 
+     * @exception IndexOutOfBoundsException if the range is not within items.
+     */
+    default void enqueueAll(Object[] items, int offset, int length) {
+        Objects.checkFromIndexSize(offset, length, items.length);
+        for (var i = offset; i < offset + length; i++) {
+            enqueue(items[i]);
+        }
+    }
+
+    /**
+     * Removes up to max items from the front of the queue into dest, starting
+     * at dest[0], and returns how many were removed.
+     * 
+     * @exception IndexOutOfBoundsException if max is negative or more than the
+     *                                      length of dest.
+     */
+    default int drainTo(Object[] dest, int max) {
+        Objects.checkFromIndexSize(0, max, dest.length);
+        var count = 0;
+        while (count < max && !isEmpty()) {
+            dest[count++] = dequeue();
+        }
+        return count;
+    }
+
     /**
      * Returns the number of items currently in the queue.
      */
@@ -0,0 +1,90 @@
+import java.util.ArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.function.Supplier;
+
+/**
+ * Compares the throughput of the thread-safe queues under contention. Each
+ * thread repeatedly enqueues an item and then dequeues one, so the queue is
+ * never empty when a dequeue happens, and every operation contends with all
+ * the other threads. The baseline is ExpandableArrayQueue behind a single
+ * lock, which is what you get by wrapping it in synchronized.
+ *
+ * Usage: java QueueContentionBenchmark [maxThreads]
+ */
+public class QueueContentionBenchmark {
+
+    private static final int OPERATIONS_PER_THREAD = 1_000_000;
+    private static final int ROUNDS = 5;
+
+    // ExpandableArrayQueue with every method synchronized on the wrapper.
+    static class SynchronizedQueue implements Queue {
+        private final Queue queue;
+
+        SynchronizedQueue(Queue queue) {
+            this.queue = queue;
+        }
+
+        public synchronized void enqueue(Object item) {
+            queue.enqueue(item);
+        }
+
+        public synchronized Object dequeue() {
+            return queue.dequeue();
+        }
+
+        public synchronized Object peek() {
+            return queue.peek();
+        }
+
+        public synchronized int size() {
+            return queue.size();
+        }
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        var maxThreads = args.length > 0 ? Integer.parseInt(args[0]) : 32;
+        System.out.printf("%-20s %8s %14s%n", "Queue", "Threads", "Mops/s");
+        for (var threads = 1; threads <= maxThreads; threads *= 2) {
+            run("synchronized", threads, () -> new SynchronizedQueue(new ExpandableArrayQueue()));
+            run("LockFreeQueue", threads, LockFreeQueue::new);
+        }
+    }
+
+    // Reports the best of several rounds, the first of which also warms up.
+    private static void run(String name, int threads, Supplier<Queue> factory) throws InterruptedException {
+        var best = 0.0;
+        for (var round = 0; round < ROUNDS; round++) {
+            best = Math.max(best, measure(factory.get(), threads));
+        }
+        System.out.printf("%-20s %8d %14.2f%n", name, threads, best);
+    }
+
+    // Returns millions of operations (enqueues plus dequeues) per second.
+    static double measure(Queue queue, int threads) throws InterruptedException {
+        var start = new CountDownLatch(1);
+        var workers = new ArrayList<Thread>();
+        var item = new Object();
+        for (var t = 0; t < threads; t++) {
+            var worker = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (var i = 0; i < OPERATIONS_PER_THREAD; i++) {
+                    queue.enqueue(item);
+                    queue.dequeue();
+                }
+            });
+            worker.start();
+            workers.add(worker);
+        }
+        var begin = System.nanoTime();
+        start.countDown();
+        for (var worker : workers) {
+            worker.join();
+        }
+        var elapsed = System.nanoTime() - begin;
+        return 2.0 * OPERATIONS_PER_THREAD * threads / elapsed * 1000;
+    }
+}
@@ -82,4 +82,33 @@ public abstract class QueueTest {
         assertThrows(NoSuchElementException.class, () -> q.peek());
     }
 
-}
\ No newline at end of file
+    @Test
+    public void testEnqueueAllThenDrainTo() {
+        var items = new Object[50];
+        for (var i = 0; i < items.length; i++) {
+            items[i] = i;
+        }
+        q.enqueue("first");
+        q.enqueueAll(items, 10, 30);
+        assertEquals(31, q.size());
+        assertEquals("first", q.dequeue());
+        var dest = new Object[50];
+        assertEquals(20, q.drainTo(dest, 20));
+        for (var i = 0; i < 20; i++) {
+            assertEquals(i + 10, dest[i]);
+        }
+        assertEquals(10, q.drainTo(dest, 50));
+        assertEquals(30, dest[0]);
+        assertEquals(39, dest[9]);
+        assertTrue(q.isEmpty());
+        assertEquals(0, q.drainTo(dest, 50));
+    }
+
+    @Test
+    public void testBulkRangesAreChecked() {
+        var items = new Object[4];
+        assertThrows(IndexOutOfBoundsException.class, () -> q.enqueueAll(items, 2, 3));
+        assertThrows(IndexOutOfBoundsException.class, () -> q.drainTo(items, 5));
+        assertTrue(q.isEmpty());
+    }
+}
@@ -0,0 +1,82 @@
+import java.util.function.Supplier;
+
+/**
+ * Measures how many items per second can be handed from producer threads to
+ * a single consumer thread through each bounded queue, compared with
+ * ExpandableArrayQueue behind a lock. The producers yield when the queue is
+ * full and the consumer yields when it is empty, so this is the best case of a
+ * pipeline where both sides keep up.
+ *
+ * Usage: java RingQueueBenchmark
+ */
+public class RingQueueBenchmark {
+
+    private static final int ITEMS = 20_000_000;
+    private static final int CAPACITY = 1 << 14;
+    private static final int ROUNDS = 5;
+
+    public static void main(String[] args) throws InterruptedException {
+        System.out.printf("%-20s %10s %14s%n", "Queue", "Producers", "Mops/s");
+        run("synchronized", 1, () -> new QueueContentionBenchmark.SynchronizedQueue(new ExpandableArrayQueue()));
+        run("SpscRingQueue", 1, () -> new SpscRingQueue(CAPACITY));
+        run("MpscRingQueue", 1, () -> new MpscRingQueue(CAPACITY));
+        run("synchronized", 4, () -> new QueueContentionBenchmark.SynchronizedQueue(new ExpandableArrayQueue()));
+        run("MpscRingQueue", 4, () -> new MpscRingQueue(CAPACITY));
+    }
+
+    private static void run(String name, int producers, Supplier<Queue> factory) throws InterruptedException {
+        var best = 0.0;
+        for (var round = 0; round < ROUNDS; round++) {
+            best = Math.max(best, measure(factory.get(), producers));
+        }
+        System.out.printf("%-20s %10d %14.2f%n", name, producers, best);
+    }
+
+    // Returns millions of items handed over per second.
+    private static double measure(Queue queue, int producers) throws InterruptedException {
+        var item = new Object();
+        var perProducer = ITEMS / producers;
+        var threads = new Thread[producers];
+        var begin = System.nanoTime();
+        for (var p = 0; p < producers; p++) {
+            threads[p] = new Thread(() -> {
+                for (var i = 0; i < perProducer; i++) {
+                    offer(queue, item);
+                }
+            });
+            threads[p].start();
+        }
+        for (var received = 0; received < perProducer * producers; received++) {
+            while (poll(queue) == null) {
+                Thread.yield();
+            }
+        }
+        var elapsed = System.nanoTime() - begin;
+        for (var thread : threads) {
+            thread.join();
+        }
+        return (double) perProducer * producers / elapsed * 1000;
+    }
+
+    // The ring queues can say they are full or empty without throwing; the
+    // locked baseline has to check the size first, which it does while
+    // holding its lock.
+    private static void offer(Queue queue, Object item) {
+        if (queue instanceof PaddedRingQueue ring) {
+            while (!ring.offer(item)) {
+                Thread.yield();
+            }
+        } else {
+            queue.enqueue(item);
+        }
+    }
+
+    private static Object poll(Queue queue) {
+        if (queue instanceof PaddedRingQueue ring) {
+            return ring.poll();
+        }
+        synchronized (queue) {
+            return queue.isEmpty() ? null : queue.dequeue();
+        }
+    }
+}
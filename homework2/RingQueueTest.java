@@ -0,0 +1,73 @@
+import java.util.NoSuchElementException;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Base test for the bounded ring queues. Subclasses set q to a ring with a
+ * capacity of 64.
+ */
+public abstract class RingQueueTest extends QueueTest {
+
+    /**
+     * Creates a ring of the class under test.
+     */
+    protected abstract PaddedRingQueue newRing(int capacity);
+
+    @Test
+    public void testCapacityIsRoundedUpToAPowerOfTwo() {
+        assertEquals(64, ((PaddedRingQueue) q).capacity());
+        assertEquals(1, newRing(1).capacity());
+        assertEquals(128, newRing(65).capacity());
+        assertThrows(IllegalArgumentException.class, () -> newRing(0));
+    }
+
+    @Test
+    public void testFullQueueRejectsItems() {
+        var ring = (PaddedRingQueue) q;
+        for (var i = 0; i < 64; i++) {
+            assertTrue(ring.offer(i));
+        }
+        assertFalse(ring.offer(64));
+        assertThrows(IllegalStateException.class, () -> ring.enqueue(64));
+        assertEquals(64, ring.size());
+        assertEquals(0, ring.poll());
+        assertTrue(ring.offer(64));
+        for (var i = 1; i <= 64; i++) {
+            assertEquals(i, ring.dequeue());
+        }
+        assertNull(ring.poll());
+        assertThrows(NoSuchElementException.class, () -> ring.dequeue());
+    }
+
+    @Test
+    public void testNullIsRejected() {
+        assertThrows(NullPointerException.class, () -> q.enqueue(null));
+    }
+
+    // Starts a thread that offers each item in turn, yielding while the ring
+    // is full.
+    protected static Thread startProducer(PaddedRingQueue ring, Object[] items) {
+        var thread = new Thread(() -> {
+            for (var item : items) {
+                while (!ring.offer(item)) {
+                    Thread.yield();
+                }
+            }
+        });
+        thread.start();
+        return thread;
+    }
+
+    // Polls the next item, yielding while the ring is empty.
+    protected static Object take(PaddedRingQueue ring) {
+        Object item;
+        while ((item = ring.poll()) == null) {
+            Thread.yield();
+        }
+        return item;
+    }
+}
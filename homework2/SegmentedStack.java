@@ -0,0 +1,166 @@
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+
+/**
+ * A stack stored in a linked list of fixed-size chunks, rather than one array
+ * that is copied whenever it grows or shrinks. A push that fills the top chunk
+ * links a new one on top, and a pop that empties it unlinks it, so no
+ * operation ever copies more than the items it is given, however big the
+ * stack gets, and memory is never needed for two copies at once.
+ *
+ * One empty chunk is kept in reserve after the stack shrinks, so that pushing
+ * and popping back and forth across a chunk boundary doesn't allocate a new
+ * chunk each time.
+ */
+public class SegmentedStack implements Stack {
+
+    public static final int DEFAULT_CHUNK_SIZE = 1024;
+
+    private static class Chunk {
+        final Object[] items;
+        // The chunk underneath this one, or null for the bottom chunk.
+        Chunk below;
+
+        Chunk(int chunkSize, Chunk below) {
+            items = new Object[chunkSize];
+            this.below = below;
+        }
+    }
+
+    private final int chunkSize;
+    // The chunk holding the top item. The bottom chunk is never unlinked, so
+    // this is never null.
+    private Chunk top;
+    // The number of items in the top chunk.
+    private int topCount = 0;
+    // An empty chunk kept from the last time the stack shrank, or null.
+    private Chunk spare;
+    private long size = 0;
+
+    public SegmentedStack() {
+        this(DEFAULT_CHUNK_SIZE);
+    }
+
+    public SegmentedStack(int chunkSize) {
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("Chunk size must be at least 1");
+        }
+        this.chunkSize = chunkSize;
+        top = new Chunk(chunkSize, null);
+    }
+
+    @Override
+    public void push(Object item) {
+        if (topCount == chunkSize) {
+            linkChunk();
+        }
+        top.items[topCount++] = item;
+        size++;
+    }
+
+    @Override
+    public Object pop() {
+        if (topCount == 0) {
+            throw new NoSuchElementException();
+        }
+        var item = top.items[--topCount];
+        top.items[topCount] = null;
+        size--;
+        if (topCount == 0) {
+            unlinkChunk();
+        }
+        return item;
+    }
+
+    @Override
+    public Object peek() {
+        if (topCount == 0) {
+            throw new NoSuchElementException();
+        }
+        return top.items[topCount - 1];
+    }
+
+    // Copies a chunk's worth at a time, so this is still one arraycopy per
+    // chunk touched.
+    @Override
+    public void pushAll(Object[] items, int offset, int length) {
+        Objects.checkFromIndexSize(offset, length, items.length);
+        while (length > 0) {
+            if (topCount == chunkSize) {
+                linkChunk();
+            }
+            var part = Math.min(length, chunkSize - topCount);
+            System.arraycopy(items, offset, top.items, topCount, part);
+            topCount += part;
+            size += part;
+            offset += part;
+            length -= part;
+        }
+    }
+
+    @Override
+    public int popN(Object[] dest, int n) {
+        Objects.checkFromIndexSize(0, n, dest.length);
+        var count = (int) Math.min(n, size);
+        // Fill dest from the end, since the top item goes last.
+        var remaining = count;
+        while (remaining > 0) {
+            var part = Math.min(remaining, topCount);
+            topCount -= part;
+            remaining -= part;
+            System.arraycopy(top.items, topCount, dest, remaining, part);
+            Arrays.fill(top.items, topCount, topCount + part, null);
+            size -= part;
+            if (topCount == 0) {
+                unlinkChunk();
+            }
+        }
+        return count;
+    }
+
+    @Override
+    public int size() {
+        return (int) Math.min(Integer.MAX_VALUE, size);
+    }
+
+    // The exact size, for stacks with more than Integer.MAX_VALUE items.
+    public long longSize() {
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public int chunkSize() {
+        return chunkSize;
+    }
+
+    // Puts an empty chunk on top, reusing the spare one if there is one.
+    private void linkChunk() {
+        var chunk = spare;
+        if (chunk == null) {
+            chunk = new Chunk(chunkSize, top);
+        } else {
+            spare = null;
+            chunk.below = top;
+        }
+        top = chunk;
+        topCount = 0;
+    }
+
+    // Called when the top chunk has just become empty. Unless it is the
+    // bottom chunk, it becomes the spare and the one below becomes the top.
+    private void unlinkChunk() {
+        if (top.below == null) {
+            return;
+        }
+        var empty = top;
+        top = empty.below;
+        topCount = chunkSize;
+        empty.below = null;
+        spare = empty;
+    }
+}
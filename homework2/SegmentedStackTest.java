@@ -0,0 +1,75 @@
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.BeforeEach;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class SegmentedStackTest extends StackTest {
+
+    @BeforeEach
+    public void makeSegmentedStack() {
+        // Small chunks, so the tests in StackTest cross chunk boundaries.
+        s = new SegmentedStack(4);
+    }
+
+    @Test
+    public void testManyChunks() {
+        for (var i = 0; i < 1000; i++) {
+            s.push(i);
+        }
+        assertEquals(1000, s.size());
+        for (var i = 999; i >= 0; i--) {
+            assertEquals(i, s.peek());
+            assertEquals(i, s.pop());
+        }
+        assertTrue(s.isEmpty());
+    }
+
+    @Test
+    public void testBackAndForthAcrossAChunkBoundary() {
+        for (var i = 0; i < 8; i++) {
+            s.push(i);
+        }
+        for (var round = 0; round < 10; round++) {
+            s.push("a");
+            s.push("b");
+            assertEquals("b", s.pop());
+            assertEquals("a", s.pop());
+            assertEquals(7, s.pop());
+            s.push(7);
+        }
+        assertEquals(8, s.size());
+        for (var i = 7; i >= 0; i--) {
+            assertEquals(i, s.pop());
+        }
+    }
+
+    @Test
+    public void testBulkTransfersAcrossChunks() {
+        var items = new Object[23];
+        for (var i = 0; i < items.length; i++) {
+            items[i] = i;
+        }
+        s.push("bottom");
+        s.pushAll(items, 0, items.length);
+        assertEquals(24, s.size());
+        assertEquals(22, s.peek());
+        var dest = new Object[30];
+        assertEquals(10, s.popN(dest, 10));
+        for (var i = 0; i < 10; i++) {
+            assertEquals(i + 13, dest[i]);
+        }
+        assertEquals(14, s.popN(dest, 30));
+        assertEquals("bottom", dest[0]);
+        assertEquals(12, dest[13]);
+        assertTrue(s.isEmpty());
+        s.pushAll(items, 5, 6);
+        assertEquals(10, s.pop());
+    }
+
+    @Test
+    public void testChunkSizeMustBePositive() {
+        assertEquals(SegmentedStack.DEFAULT_CHUNK_SIZE, new SegmentedStack().chunkSize());
+        assertThrows(IllegalArgumentException.class, () -> new SegmentedStack(0));
+    }
+}
@@ -0,0 +1,349 @@
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * A queue that keeps its oldest and newest items in memory, and spills the
+ * ones in between to disk once there are too many to hold. It is made of
+ * three parts, in queue order:
+ *
+ * - the head, an ExpandableArrayQueue of the oldest items, which dequeue
+ * reads from;
+ * - the spilled items, in append-only segment files;
+ * - the tail, an ExpandableArrayQueue of the newest items, already serialized,
+ * which enqueue adds to.
+ *
+ * While the consumer keeps up, items stay in the head and nothing touches the
+ * disk. Once the tail holds half the memory limit, all of its items are
+ * appended to the current segment file. When the head runs dry, it is
+ * refilled with up to half the memory limit of items read back from the
+ * oldest segment, which is memory-mapped once it is complete and deleted once
+ * it has been read, or from the tail once nothing is left on disk. So at most
+ * memoryLimit items are held in memory, however long the queue gets.
+ *
+ * Items are turned into bytes by a pluggable Serializer. An item bound for
+ * the tail is serialized before it is added, so an item the serializer
+ * cannot handle makes enqueue throw and leaves the queue as it was. Items
+ * that go straight into the head are never serialized. Errors reading or
+ * writing the segment files are thrown as UncheckedIOException, since the
+ * Queue methods cannot throw IOException. Close the queue to delete its
+ * segment files.
+ */
+public class SpillingQueue implements Queue, Closeable {
+
+    /**
+     * Turns items into bytes for the segment files, and back.
+     */
+    public interface Serializer {
+
+        byte[] serialize(Object item);
+
+        /**
+         * Reads an item back from the bytes between the position and the
+         * limit of the buffer.
+         */
+        Object deserialize(ByteBuffer bytes);
+
+        /**
+         * Stores Strings as UTF-8.
+         */
+        Serializer STRINGS = new Serializer() {
+            @Override
+            public byte[] serialize(Object item) {
+                return ((String) item).getBytes(StandardCharsets.UTF_8);
+            }
+
+            @Override
+            public Object deserialize(ByteBuffer bytes) {
+                return StandardCharsets.UTF_8.decode(bytes).toString();
+            }
+        };
+
+        /**
+         * Stores any Serializable item with Java serialization.
+         */
+        Serializer JAVA = new Serializer() {
+            @Override
+            public byte[] serialize(Object item) {
+                var bytes = new ByteArrayOutputStream();
+                try (var out = new ObjectOutputStream(bytes)) {
+                    out.writeObject(item);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                return bytes.toByteArray();
+            }
+
+            @Override
+            public Object deserialize(ByteBuffer bytes) {
+                var array = new byte[bytes.remaining()];
+                bytes.get(array);
+                try (var in = new ObjectInputStream(new ByteArrayInputStream(array))) {
+                    return in.readObject();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                } catch (ClassNotFoundException e) {
+                    throw new IllegalStateException(e);
+                }
+            }
+        };
+    }
+
+    public static final long DEFAULT_SEGMENT_SIZE = 64L << 20;
+
+    // One append-only file of spilled items, each stored as its length in
+    // bytes followed by its serialized bytes.
+    private static class Segment {
+        final Path path;
+        // Open while items are still being appended.
+        final FileChannel writer;
+        long bytes = 0;
+        long items = 0;
+        // Mapped once the segment is complete and being read.
+        MappedByteBuffer reader;
+
+        // Creates a new, uniquely named segment file in the directory.
+        Segment(Path directory) throws IOException {
+            path = Files.createTempFile(directory, "spill-", ".seg");
+            writer = FileChannel.open(path, StandardOpenOption.WRITE);
+        }
+    }
+
+    private final Path directory;
+    private final int memoryLimit;
+    private final Serializer serializer;
+    private final long segmentSize;
+
+    private final ExpandableArrayQueue head = new ExpandableArrayQueue();
+    private final ExpandableArrayQueue tail = new ExpandableArrayQueue();
+    // The segments holding spilled items, oldest first. Only the last one can
+    // still be open for writing.
+    private final ExpandableArrayQueue segments = new ExpandableArrayQueue();
+    // The last segment, if it is still open for items to be appended.
+    private Segment writing;
+    private long spilled = 0;
+    // Collects serialized items before they are written, reused between spills.
+    private ByteBuffer staging = ByteBuffer.allocateDirect(1 << 16);
+    private boolean closed = false;
+
+    public SpillingQueue(Path directory, int memoryLimit, Serializer serializer) {
+        this(directory, memoryLimit, serializer, DEFAULT_SEGMENT_SIZE);
+    }
+
+    // Segment files are created in the directory, which must already exist.
+    // memoryLimit is the most items held in memory at once. A segment is
+    // finished once it holds segmentSize bytes, unless a single item is bigger.
+    public SpillingQueue(Path directory, int memoryLimit, Serializer serializer, long segmentSize) {
+        if (!Files.isDirectory(directory)) {
+            throw new IllegalArgumentException("Not a directory: " + directory);
+        }
+        if (memoryLimit < 2) {
+            throw new IllegalArgumentException("Memory limit must be at least 2 items");
+        }
+        if (segmentSize < 1 || segmentSize > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Segment size must be between 1 and " + Integer.MAX_VALUE);
+        }
+        this.directory = directory;
+        this.memoryLimit = memoryLimit;
+        this.serializer = serializer;
+        this.segmentSize = segmentSize;
+    }
+
+    @Override
+    public void enqueue(Object item) {
+        checkOpen();
+        if (spilled == 0 && tail.isEmpty() && head.size() < memoryLimit / 2) {
+            // The consumer is keeping up, so the item can go straight in the
+            // head.
+            head.enqueue(item);
+            return;
+        }
+        var bytes = serializer.serialize(item);
+        if (bytes.length > Integer.MAX_VALUE - Integer.BYTES) {
+            throw new IllegalArgumentException("Item is too big to spill");
+        }
+        tail.enqueue(bytes);
+        if (tail.size() >= memoryLimit / 2) {
+            spill();
+        }
+    }
+
+    @Override
+    public Object dequeue() {
+        if (head.isEmpty()) {
+            refill();
+        }
+        return head.dequeue();
+    }
+
+    @Override
+    public Object peek() {
+        if (head.isEmpty()) {
+            refill();
+        }
+        return head.peek();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return head.isEmpty() && spilled == 0 && tail.isEmpty();
+    }
+
+    @Override
+    public int size() {
+        return (int) Math.min(Integer.MAX_VALUE, longSize());
+    }
+
+    // The exact size, for queues with more than Integer.MAX_VALUE items.
+    public long longSize() {
+        return head.size() + spilled + tail.size();
+    }
+
+    // Returns the number of items currently on disk.
+    public long spilledSize() {
+        return spilled;
+    }
+
+    // Deletes the segment files. Items that were spilled are lost, and the
+    // queue cannot be added to any more.
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        IOException failure = null;
+        while (!segments.isEmpty()) {
+            try {
+                deleteSegment((Segment) segments.dequeue());
+            } catch (IOException e) {
+                failure = e;
+            }
+        }
+        spilled = 0;
+        if (failure != null) {
+            throw new UncheckedIOException(failure);
+        }
+    }
+
+    // Appends every item in the tail to the last segment, starting new
+    // segments as they fill up. The items were serialized when they were
+    // enqueued, so only writing them can fail.
+    private void spill() {
+        try {
+            while (!tail.isEmpty()) {
+                var bytes = (byte[]) tail.peek();
+                var recordSize = Integer.BYTES + bytes.length;
+                if (writing != null && writing.items > 0 && writing.bytes + recordSize > segmentSize) {
+                    finishWriting();
+                }
+                if (writing == null) {
+                    writing = new Segment(directory);
+                    segments.enqueue(writing);
+                }
+                if (staging.remaining() < recordSize) {
+                    flush();
+                    if (staging.capacity() < recordSize) {
+                        staging = ByteBuffer.allocateDirect(recordSize);
+                    }
+                }
+                staging.putInt(bytes.length).put(bytes);
+                writing.bytes += recordSize;
+                writing.items++;
+                spilled++;
+                tail.dequeue();
+            }
+            flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // Moves up to half the memory limit of items from the oldest segment, or
+    // from the tail if nothing is spilled, into the head.
+    private void refill() {
+        if (spilled == 0) {
+            // The tail is never allowed to reach half the memory limit, so
+            // this moves all of it.
+            while (!tail.isEmpty()) {
+                head.enqueue(serializer.deserialize(ByteBuffer.wrap((byte[]) tail.peek())));
+                tail.dequeue();
+            }
+            return;
+        }
+        try {
+            var segment = (Segment) segments.peek();
+            if (segment == writing) {
+                finishWriting();
+            }
+            if (segment.reader == null) {
+                try (var channel = FileChannel.open(segment.path, StandardOpenOption.READ)) {
+                    segment.reader = channel.map(FileChannel.MapMode.READ_ONLY, 0, segment.bytes);
+                }
+            }
+            var reader = segment.reader;
+            var count = (int) Math.min(memoryLimit / 2, segment.items);
+            for (var i = 0; i < count; i++) {
+                // Each item is only counted as moved once it has been
+                // deserialized, so if the serializer throws, the items before
+                // it stay in the head and it is read again next time.
+                var start = reader.position();
+                var length = reader.getInt(start);
+                head.enqueue(serializer.deserialize(reader.slice(start + Integer.BYTES, length)));
+                reader.position(start + Integer.BYTES + length);
+                segment.items--;
+                spilled--;
+            }
+            if (segment.items == 0) {
+                segments.dequeue();
+                deleteSegment(segment);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // Writes out whatever is staged, at the end of the segment being written.
+    private void flush() throws IOException {
+        staging.flip();
+        while (staging.hasRemaining()) {
+            writing.writer.write(staging);
+        }
+        staging.clear();
+    }
+
+    // Closes the segment being written, so it can be mapped and read. Anything
+    // spilled later goes into a new segment.
+    private void finishWriting() throws IOException {
+        flush();
+        writing.writer.close();
+        writing = null;
+    }
+
+    private void deleteSegment(Segment segment) throws IOException {
+        if (segment == writing) {
+            finishWriting();
+        }
+        // The mapping stays valid until it is garbage collected, but on the
+        // file systems we run on the file can be deleted while mapped.
+        segment.reader = null;
+        Files.deleteIfExists(segment.path);
+    }
+
+    private void checkOpen() {
+        if (closed) {
+            throw new IllegalStateException("Queue has been closed");
+        }
+    }
+}
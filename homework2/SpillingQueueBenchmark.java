@@ -0,0 +1,63 @@
+import java.io.IOException;
+import java.nio.file.Files;
+
+/**
+ * Compares SpillingQueue with ExpandableArrayQueue. "caught up" keeps the
+ * queue short, as when the consumer keeps up with the producer, so the
+ * spilling queue never touches the disk. "backlog" enqueues a long run of
+ * items before dequeuing them all, so most of them go through the segment
+ * files.
+ *
+ * Usage: java SpillingQueueBenchmark
+ */
+public class SpillingQueueBenchmark {
+
+    private static final int ITEMS = 2_000_000;
+    private static final int MEMORY_LIMIT = 1 << 16;
+    private static final int ROUNDS = 5;
+
+    public static void main(String[] args) throws IOException {
+        var directory = Files.createTempDirectory("spill");
+        System.out.printf("%-25s %-12s %14s%n", "Queue", "Workload", "Mops/s");
+        for (var backlog : new boolean[] { false, true }) {
+            var workload = backlog ? "backlog" : "caught up";
+            var best = 0.0;
+            for (var round = 0; round < ROUNDS; round++) {
+                best = Math.max(best, measure(new ExpandableArrayQueue(), backlog));
+            }
+            System.out.printf("%-25s %-12s %14.2f%n", "ExpandableArrayQueue", workload, best);
+            best = 0.0;
+            for (var round = 0; round < ROUNDS; round++) {
+                try (var queue = new SpillingQueue(directory, MEMORY_LIMIT, SpillingQueue.Serializer.STRINGS)) {
+                    best = Math.max(best, measure(queue, backlog));
+                }
+            }
+            System.out.printf("%-25s %-12s %14.2f%n", "SpillingQueue", workload, best);
+        }
+        Files.delete(directory);
+    }
+
+    // Returns millions of operations (enqueues plus dequeues) per second.
+    private static double measure(Queue queue, boolean backlog) {
+        var item = "a telemetry event";
+        var begin = System.nanoTime();
+        if (backlog) {
+            for (var i = 0; i < ITEMS; i++) {
+                queue.enqueue(item);
+            }
+            for (var i = 0; i < ITEMS; i++) {
+                queue.dequeue();
+            }
+        } else {
+            for (var i = 0; i < ITEMS; i++) {
+                queue.enqueue(item);
+                queue.enqueue(item);
+                queue.dequeue();
+                queue.dequeue();
+            }
+        }
+        var elapsed = System.nanoTime() - begin;
+        var operations = backlog ? 2.0 * ITEMS : 4.0 * ITEMS;
+        return operations / elapsed * 1000;
+    }
+}
@@ -0,0 +1,179 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class SpillingQueueTest extends QueueTest {
+
+    @TempDir
+    Path directory;
+
+    @BeforeEach
+    public void makeSpillingQueue() {
+        // A small memory limit, so the tests in QueueTest spill to disk.
+        q = new SpillingQueue(directory, 8, SpillingQueue.Serializer.JAVA);
+    }
+
+    @AfterEach
+    public void closeSpillingQueue() {
+        ((SpillingQueue) q).close();
+    }
+
+    private long segmentFiles() throws IOException {
+        try (var files = Files.list(directory)) {
+            return files.count();
+        }
+    }
+
+    @Test
+    public void testItemsComeBackInOrderAcrossSegments() throws IOException {
+        // Small segments, so the spilled items are spread over many files.
+        try (var queue = new SpillingQueue(directory, 10, SpillingQueue.Serializer.STRINGS, 100)) {
+            for (var i = 0; i < 1000; i++) {
+                queue.enqueue("item " + i);
+            }
+            assertEquals(1000, queue.size());
+            assertTrue(queue.spilledSize() > 900);
+            assertTrue(segmentFiles() > 10);
+            for (var i = 0; i < 1000; i++) {
+                assertEquals("item " + i, queue.peek());
+                assertEquals("item " + i, queue.dequeue());
+            }
+            assertTrue(queue.isEmpty());
+            assertEquals(0, segmentFiles());
+        }
+    }
+
+    @Test
+    public void testNothingSpillsWhileTheConsumerKeepsUp() throws IOException {
+        try (var queue = new SpillingQueue(directory, 10, SpillingQueue.Serializer.STRINGS)) {
+            for (var i = 0; i < 1000; i++) {
+                queue.enqueue("a");
+                queue.enqueue("b");
+                assertEquals("a", queue.dequeue());
+                assertEquals("b", queue.dequeue());
+            }
+            assertEquals(0, segmentFiles());
+        }
+    }
+
+    @Test
+    public void testMatchesAnInMemoryQueue() {
+        var random = new Random(42);
+        var expected = new ExpandableArrayQueue();
+        try (var queue = new SpillingQueue(directory, 16, SpillingQueue.Serializer.JAVA, 256)) {
+            var next = 0;
+            for (var step = 0; step < 20_000; step++) {
+                // Lean towards enqueues for a while, then towards dequeues.
+                var enqueueChance = (step / 2000) % 2 == 0 ? 0.7 : 0.3;
+                if (random.nextDouble() < enqueueChance || expected.isEmpty()) {
+                    expected.enqueue(next);
+                    queue.enqueue(next++);
+                } else {
+                    assertEquals(expected.dequeue(), queue.dequeue());
+                }
+                assertEquals(expected.size(), queue.size());
+            }
+            while (!expected.isEmpty()) {
+                assertEquals(expected.dequeue(), queue.dequeue());
+            }
+            assertTrue(queue.isEmpty());
+        }
+    }
+
+    @Test
+    public void testCloseDeletesTheSegments() throws IOException {
+        var queue = new SpillingQueue(directory, 4, SpillingQueue.Serializer.STRINGS, 64);
+        for (var i = 0; i < 100; i++) {
+            queue.enqueue("abc");
+        }
+        assertTrue(segmentFiles() > 0);
+        queue.close();
+        assertEquals(0, segmentFiles());
+        assertThrows(IllegalStateException.class, () -> queue.enqueue("abc"));
+    }
+
+    @Test
+    public void testInvalidArgumentsAreRejected() {
+        var serializer = SpillingQueue.Serializer.STRINGS;
+        assertThrows(IllegalArgumentException.class, () -> new SpillingQueue(directory.resolve("missing"), 8, serializer));
+        assertThrows(IllegalArgumentException.class, () -> new SpillingQueue(directory, 1, serializer));
+        assertThrows(IllegalArgumentException.class, () -> new SpillingQueue(directory, 8, serializer, 0));
+    }
+
+    @Test
+    public void testItemsTheSerializerRejectsLeaveTheQueueUnchanged() {
+        try (var queue = new SpillingQueue(directory, 4, SpillingQueue.Serializer.STRINGS)) {
+            queue.enqueue("a");
+            queue.enqueue("b");
+            // The head is full, so this item would have to be serialized.
+            assertThrows(ClassCastException.class, () -> queue.enqueue(42));
+            assertEquals(2, queue.size());
+            for (var i = 0; i < 10; i++) {
+                queue.enqueue("item " + i);
+            }
+            assertTrue(queue.spilledSize() > 0);
+            assertEquals("a", queue.dequeue());
+            assertEquals("b", queue.dequeue());
+            for (var i = 0; i < 10; i++) {
+                assertEquals("item " + i, queue.dequeue());
+            }
+            assertTrue(queue.isEmpty());
+        }
+        try (var queue = new SpillingQueue(directory, 2, SpillingQueue.Serializer.JAVA)) {
+            queue.enqueue("a");
+            assertThrows(UncheckedIOException.class, () -> queue.enqueue(new Object()));
+            queue.enqueue("b");
+            assertEquals(2, queue.size());
+            assertEquals("a", queue.dequeue());
+            assertEquals("b", queue.dequeue());
+        }
+    }
+
+    @Test
+    public void testFailedDeserializationCanBeRetried() {
+        // Fails the fifth item read back from disk, once.
+        var reads = new int[1];
+        var flaky = new SpillingQueue.Serializer() {
+            @Override
+            public byte[] serialize(Object item) {
+                return SpillingQueue.Serializer.STRINGS.serialize(item);
+            }
+
+            @Override
+            public Object deserialize(ByteBuffer bytes) {
+                if (++reads[0] == 5) {
+                    throw new IllegalStateException("flaky");
+                }
+                return SpillingQueue.Serializer.STRINGS.deserialize(bytes);
+            }
+        };
+        try (var queue = new SpillingQueue(directory, 8, flaky, 100)) {
+            for (var i = 0; i < 40; i++) {
+                queue.enqueue("item " + i);
+            }
+            assertTrue(queue.spilledSize() > 0);
+            var failures = 0;
+            for (var i = 0; i < 40; i++) {
+                try {
+                    assertEquals("item " + i, queue.dequeue());
+                } catch (IllegalStateException e) {
+                    failures++;
+                    i--;
+                }
+            }
+            assertEquals(1, failures);
+            assertTrue(queue.isEmpty());
+            assertEquals(0, queue.spilledSize());
+        }
+    }
+}
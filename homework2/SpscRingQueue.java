@@ -0,0 +1,62 @@
+/**
+ * A bounded, lock-free queue for exactly one producer thread and one consumer
+ * thread. Neither side ever writes a field the other side writes: the
+ * producer publishes each item by advancing tail with a release store, and the
+ * consumer frees each slot by advancing head with a release store. Each side
+ * keeps a cached copy of the other's index and only re-reads the real one
+ * (with an acquire load) when the ring looks full or empty.
+ *
+ * Only one thread may call enqueue and offer, and only one thread may call
+ * dequeue, poll and peek.
+ */
+public class SpscRingQueue extends PaddedRingQueue {
+
+    public SpscRingQueue(int capacity) {
+        super(capacity);
+    }
+
+    @Override
+    public boolean offer(Object item) {
+        checkNotNull(item);
+        // Only this thread writes tail, so a plain read is enough.
+        var last = (long) TAIL.get(this);
+        if (last - cachedHead >= buffer.length) {
+            cachedHead = (long) HEAD.getAcquire(this);
+            if (last - cachedHead >= buffer.length) {
+                return false;
+            }
+        }
+        buffer[(int) last & mask] = item;
+        TAIL.setRelease(this, last + 1);
+        return true;
+    }
+
+    @Override
+    public Object poll() {
+        var first = (long) HEAD.get(this);
+        if (!available(first)) {
+            return null;
+        }
+        var index = (int) first & mask;
+        var item = buffer[index];
+        buffer[index] = null;
+        HEAD.setRelease(this, first + 1);
+        return item;
+    }
+
+    @Override
+    Object front() {
+        var first = (long) HEAD.get(this);
+        return available(first) ? buffer[(int) first & mask] : null;
+    }
+
+    // Whether slot first has been published, checking the real tail only if
+    // the cached one says it has not.
+    private boolean available(long first) {
+        if (first < cachedTail) {
+            return true;
+        }
+        cachedTail = (long) TAIL.getAcquire(this);
+        return first < cachedTail;
+    }
+}
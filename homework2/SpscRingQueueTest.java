@@ -0,0 +1,33 @@
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.BeforeEach;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class SpscRingQueueTest extends RingQueueTest {
+
+    @BeforeEach
+    public void makeSpscRingQueue() {
+        q = newRing(64);
+    }
+
+    @Override
+    protected PaddedRingQueue newRing(int capacity) {
+        return new SpscRingQueue(capacity);
+    }
+
+    @Test
+    public void testProducerAndConsumerOnSeparateThreads() throws InterruptedException {
+        var ring = newRing(16);
+        var items = new Object[200_000];
+        for (var i = 0; i < items.length; i++) {
+            items[i] = i;
+        }
+        var producer = startProducer(ring, items);
+        // Items must arrive in the order they were offered
+        for (var i = 0; i < items.length; i++) {
+            assertEquals(i, take(ring));
+        }
+        producer.join();
+        assertTrue(ring.isEmpty());
+    }
+}
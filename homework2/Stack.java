@@ -1,3 +1,5 @@
+import java.util.Objects;
+
 /**
  * A small stack interface. You can (1) query the size of the stack, (2) ask
  * whether it is empty, (3) push an item, (4) pop an item, and (5) peek at the
@@ -24,6 +26,36 @@ public interface Stack {
      */
     Object peek();
 
+    /**
+     * Pushes items[offset] through items[offset + length - 1], in order, so
+     * that the last of them ends up on top.
+     * 
+     * @exception IndexOutOfBoundsException if the range is not within items.
+     */
+    default void pushAll(Object[] items, int offset, int length) {
+        Objects.checkFromIndexSize(offset, length, items.length);
+        for (var i = offset; i < offset + length; i++) {
+            push(items[i]);
+        }
+    }
+
+    /**
+     * Pops up to n items into dest and returns how many were popped. They are
+     * stored in the order they were pushed, so the former top item ends up at
+     * dest[count - 1], and pushAll(dest, 0, count) would put them back.
+     * 
+     * @exception IndexOutOfBoundsException if n is negative or more than the
+     *                                      length of dest.
+     */
+    default int popN(Object[] dest, int n) {
+        Objects.checkFromIndexSize(0, n, dest.length);
+        var count = Math.min(n, size());
+        for (var i = count - 1; i >= 0; i--) {
+            dest[i] = pop();
+        }
+        return count;
+    }
+
     /**
      * Returns the number of items currently in the stack.
      */
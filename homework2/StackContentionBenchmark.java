@@ -0,0 +1,92 @@
+import java.util.ArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.function.Supplier;
+
+/**
+ * Compares the throughput of the thread-safe stacks under contention, in the
+ * way a shared free list of pooled buffers is used: each thread repeatedly
+ * pushes an item and then pops one. The baseline is ExpandableArrayStack
+ * behind a single lock. LockFreeStack is measured both as a plain Treiber
+ * stack (no elimination slots) and with its default elimination array, to
+ * show how much elimination helps as the thread count grows.
+ *
+ * Usage: java StackContentionBenchmark [maxThreads]
+ */
+public class StackContentionBenchmark {
+
+    private static final int OPERATIONS_PER_THREAD = 1_000_000;
+    private static final int ROUNDS = 5;
+
+    // ExpandableArrayStack with every method synchronized on the wrapper.
+    static class SynchronizedStack implements Stack {
+        private final Stack stack;
+
+        SynchronizedStack(Stack stack) {
+            this.stack = stack;
+        }
+
+        public synchronized void push(Object item) {
+            stack.push(item);
+        }
+
+        public synchronized Object pop() {
+            return stack.pop();
+        }
+
+        public synchronized Object peek() {
+            return stack.peek();
+        }
+
+        public synchronized int size() {
+            return stack.size();
+        }
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        var maxThreads = args.length > 0 ? Integer.parseInt(args[0]) : 64;
+        System.out.printf("%-20s %8s %14s%n", "Stack", "Threads", "Mops/s");
+        for (var threads = 1; threads <= maxThreads; threads *= 2) {
+            run("synchronized", threads, () -> new SynchronizedStack(new ExpandableArrayStack()));
+            run("Treiber", threads, () -> new LockFreeStack(0));
+            run("LockFreeStack", threads, LockFreeStack::new);
+        }
+    }
+
+    // Reports the best of several rounds, the first of which also warms up.
+    private static void run(String name, int threads, Supplier<Stack> factory) throws InterruptedException {
+        var best = 0.0;
+        for (var round = 0; round < ROUNDS; round++) {
+            best = Math.max(best, measure(factory.get(), threads));
+        }
+        System.out.printf("%-20s %8d %14.2f%n", name, threads, best);
+    }
+
+    // Returns millions of operations (pushes plus pops) per second.
+    static double measure(Stack stack, int threads) throws InterruptedException {
+        var start = new CountDownLatch(1);
+        var workers = new ArrayList<Thread>();
+        var item = new Object();
+        for (var t = 0; t < threads; t++) {
+            var worker = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (var i = 0; i < OPERATIONS_PER_THREAD; i++) {
+                    stack.push(item);
+                    stack.pop();
+                }
+            });
+            worker.start();
+            workers.add(worker);
+        }
+        var begin = System.nanoTime();
+        start.countDown();
+        for (var worker : workers) {
+            worker.join();
+        }
+        var elapsed = System.nanoTime() - begin;
+        return 2.0 * OPERATIONS_PER_THREAD * threads / elapsed * 1000;
+    }
+}
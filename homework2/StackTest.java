@@ -72,4 +72,35 @@ public abstract class StackTest {
         assertTrue(s.isEmpty());
         assertThrows(NoSuchElementException.class, () -> s.peek());
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testPushAllThenPopN() {
+        var items = new Object[50];
+        for (var i = 0; i < items.length; i++) {
+            items[i] = i;
+        }
+        s.pushAll(items, 10, 30);
+        assertEquals(30, s.size());
+        assertEquals(39, s.peek());
+        var dest = new Object[50];
+        assertEquals(5, s.popN(dest, 5));
+        // The popped items keep their push order, with the old top last.
+        for (var i = 0; i < 5; i++) {
+            assertEquals(i + 35, dest[i]);
+        }
+        assertEquals(34, s.pop());
+        assertEquals(24, s.popN(dest, 50));
+        assertEquals(10, dest[0]);
+        assertEquals(33, dest[23]);
+        assertTrue(s.isEmpty());
+        assertEquals(0, s.popN(dest, 50));
+    }
+
+    @Test
+    public void testBulkRangesAreChecked() {
+        var items = new Object[4];
+        assertThrows(IndexOutOfBoundsException.class, () -> s.pushAll(items, 2, 3));
+        assertThrows(IndexOutOfBoundsException.class, () -> s.popN(items, 5));
+        assertTrue(s.isEmpty());
+    }
+}
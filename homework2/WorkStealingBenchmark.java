@@ -0,0 +1,75 @@
+/**
+ * Compares fork/join throughput when forked tasks go into per-worker
+ * work-stealing deques against when they all go through one shared
+ * LockFreeQueue. Each round, one task forks a batch of small tasks and then
+ * joins them newest first, while the other workers steal (or dequeue) tasks
+ * to run in parallel, so almost all the work is scheduling.
+ *
+ * The batch is flat, rather than a recursive tree of tasks, because a worker
+ * helping with a join from a shared FIFO queue always picks up the oldest
+ * task, which for a tree is a huge subtree, and ends up recursing as deep as
+ * the tree is wide.
+ *
+ * Usage: java WorkStealingBenchmark [threads]
+ */
+public class WorkStealingBenchmark {
+
+    private static final int TASKS = 1 << 20;
+    private static final int ROUNDS = 5;
+
+    // A small piece of work: sums the integers below n.
+    static class Leaf extends WorkStealingExecutor.Task<Long> {
+        private final int n;
+
+        Leaf(int n) {
+            this.n = n;
+        }
+
+        @Override
+        protected Long compute() {
+            var sum = 0L;
+            for (var i = 0; i < n; i++) {
+                sum += i;
+            }
+            return sum;
+        }
+    }
+
+    // Forks the leaves, then joins them in the reverse order.
+    static class Batch extends WorkStealingExecutor.Task<Long> {
+        @Override
+        protected Long compute() {
+            var leaves = new Leaf[TASKS];
+            for (var i = 0; i < TASKS; i++) {
+                leaves[i] = new Leaf(i % 64);
+                leaves[i].fork();
+            }
+            var sum = 0L;
+            for (var i = TASKS - 1; i >= 0; i--) {
+                sum += leaves[i].join();
+            }
+            return sum;
+        }
+    }
+
+    public static void main(String[] args) {
+        var threads = args.length > 0 ? Integer.parseInt(args[0]) : Runtime.getRuntime().availableProcessors();
+        System.out.printf("%-20s %8s %14s%n", "Scheduling", "Threads", "Mtasks/s");
+        run("work stealing", threads, true);
+        run("shared queue", threads, false);
+    }
+
+    // Reports the best of several rounds, the first of which also warms up.
+    private static void run(String name, int threads, boolean stealing) {
+        var best = 0.0;
+        try (var executor = new WorkStealingExecutor(threads, stealing)) {
+            for (var round = 0; round < ROUNDS; round++) {
+                var begin = System.nanoTime();
+                executor.invoke(new Batch());
+                var elapsed = System.nanoTime() - begin;
+                best = Math.max(best, (double) TASKS / elapsed * 1000);
+            }
+        }
+        System.out.printf("%-20s %8d %14.2f%n", name, threads, best);
+    }
+}
@@ -0,0 +1,164 @@
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.NoSuchElementException;
+
+/**
+ * A Chase-Lev work-stealing deque. One owner thread uses it as a Stack,
+ * pushing and popping at the bottom, while any number of thief threads steal
+ * from the top, oldest item first, as if it were a Queue. The owner's push and
+ * pop only need a compare-and-set when they race with a thief for the last
+ * item; thieves compare-and-set the top index to claim an item.
+ *
+ * The items live in a circular array whose length is a power of two, indexed
+ * by ever-increasing top and bottom counters, and which grows and shrinks like
+ * the one in ExpandableArrayQueue: it doubles when full and halves when less
+ * than a quarter full. Only the owner resizes it, by copying the live items
+ * into a new array and publishing that before moving the bottom. A thief that
+ * is still reading the old array sees the same items there, because the owner
+ * never writes to an array once it has been replaced.
+ *
+ * push, pop and peek may only be called by the owner thread; steal and size
+ * may be called by any thread. Null items are not allowed, so steal can
+ * return null when there is nothing to steal.
+ */
+public class WorkStealingDeque implements Stack {
+
+    private static final int MINIMUM_CAPACITY = 16;
+
+    private static final VarHandle TOP;
+    private static final VarHandle BOTTOM;
+    private static final VarHandle SLOT = MethodHandles.arrayElementVarHandle(Object[].class);
+
+    static {
+        try {
+            var lookup = MethodHandles.lookup();
+            TOP = lookup.findVarHandle(WorkStealingDeque.class, "top", long.class);
+            BOTTOM = lookup.findVarHandle(WorkStealingDeque.class, "bottom", long.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    // The index of the oldest item, which thieves steal next.
+    private volatile long top = 0;
+    // The index the owner pushes to next.
+    private volatile long bottom = 0;
+    private volatile Object[] array = new Object[MINIMUM_CAPACITY];
+
+    // Owner thread only.
+    @Override
+    public void push(Object item) {
+        if (item == null) {
+            throw new NullPointerException("Work-stealing deques cannot hold null");
+        }
+        var b = bottom;
+        var t = top;
+        var a = array;
+        if (b - t >= a.length) {
+            a = reallocate(a, t, b, a.length * 2);
+        }
+        SLOT.setRelease(a, (int) b & (a.length - 1), item);
+        // Publishing the new bottom makes the item visible to thieves.
+        BOTTOM.setRelease(this, b + 1);
+    }
+
+    // Owner thread only.
+    @Override
+    public Object pop() {
+        var b = bottom - 1;
+        var a = array;
+        // Claim the bottom item before looking at the top, so that a thief
+        // reading the bottom after this will not take it. Both accesses are
+        // volatile, so they cannot be reordered.
+        bottom = b;
+        var t = top;
+        if (t > b) {
+            // The deque was empty.
+            bottom = b + 1;
+            throw new NoSuchElementException();
+        }
+        var slot = (int) b & (a.length - 1);
+        var item = SLOT.getAcquire(a, slot);
+        if (t == b) {
+            // This was the last item, so race the thieves for it.
+            var won = TOP.compareAndSet(this, t, t + 1);
+            bottom = b + 1;
+            if (!won) {
+                throw new NoSuchElementException();
+            }
+            SLOT.setRelease(a, slot, null);
+            return item;
+        }
+        SLOT.setRelease(a, slot, null);
+        // If the deque is less than 25% full, halve the capacity of the array.
+        if (b - t < a.length / 4 && a.length > MINIMUM_CAPACITY) {
+            reallocate(a, t, b, a.length / 2);
+        }
+        return item;
+    }
+
+    // Owner thread only.
+    @Override
+    public Object peek() {
+        var b = bottom;
+        if (top >= b) {
+            throw new NoSuchElementException();
+        }
+        var a = array;
+        // If this is the only item a thief may steal it at any moment, but it
+        // stays in its slot until the owner pushes again.
+        return SLOT.getAcquire(a, (int) (b - 1) & (a.length - 1));
+    }
+
+    // Removes and returns the oldest item, or returns null if the deque is
+    // empty. Any thread may steal, including the owner.
+    public Object steal() {
+        while (true) {
+            var t = top;
+            var b = bottom;
+            if (t >= b) {
+                return null;
+            }
+            // Read the array after the bottom: the owner publishes a new array
+            // before moving the bottom, so this array holds item t.
+            var a = array;
+            var slot = (int) t & (a.length - 1);
+            var item = SLOT.getAcquire(a, slot);
+            // The slot is not cleared afterwards, since by then the owner may
+            // have reused it (possibly for the same object). It is overwritten
+            // by a later push, or left behind when the array is resized.
+            if (TOP.compareAndSet(this, t, t + 1)) {
+                return item;
+            }
+            // Another thief, or the owner popping the last item, got there
+            // first. Try again with the new top.
+            Thread.onSpinWait();
+        }
+    }
+
+    // Exact when the deque is quiescent, and approximate (but never negative)
+    // otherwise. Any thread may call this.
+    @Override
+    public int size() {
+        var t = top;
+        var b = bottom;
+        return (int) Math.max(0, Math.min(Integer.MAX_VALUE, b - t));
+    }
+
+    // The current length of the circular array.
+    public int capacity() {
+        return array.length;
+    }
+
+    // Copies items t to b - 1 into a new array of the given length, publishes
+    // it and returns it. Owner thread only. Thieves may move the top while
+    // this copies; the extra items it copies are then never read.
+    private Object[] reallocate(Object[] a, long t, long b, int newLength) {
+        var newArray = new Object[newLength];
+        for (var i = t; i < b; i++) {
+            newArray[(int) i & (newLength - 1)] = SLOT.getAcquire(a, (int) i & (a.length - 1));
+        }
+        array = newArray;
+        return newArray;
+    }
+}
@@ -0,0 +1,116 @@
+import java.util.ArrayList;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.BeforeEach;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class WorkStealingDequeTest extends StackTest {
+
+    @BeforeEach
+    public void makeWorkStealingDeque() {
+        s = new WorkStealingDeque();
+    }
+
+    @Test
+    public void testStealTakesTheOldestItem() {
+        var deque = (WorkStealingDeque) s;
+        assertNull(deque.steal());
+        for (var i = 0; i < 5; i++) {
+            deque.push(i);
+        }
+        assertEquals(0, deque.steal());
+        assertEquals(1, deque.steal());
+        assertEquals(4, deque.pop());
+        assertEquals(2, deque.size());
+        assertEquals(2, deque.steal());
+        assertEquals(3, deque.pop());
+        assertNull(deque.steal());
+        assertTrue(deque.isEmpty());
+    }
+
+    @Test
+    public void testGrowsAndShrinksAcrossTheWrap() {
+        var deque = (WorkStealingDeque) s;
+        int initialCapacity = deque.capacity();
+        // Move the indices along so the items wrap around the array.
+        for (var i = 0; i < initialCapacity / 2; i++) {
+            deque.push("abc");
+            deque.steal();
+        }
+        for (var i = 0; i < initialCapacity * 4 + 1; i++) {
+            deque.push(i);
+        }
+        assertEquals(initialCapacity * 8, deque.capacity());
+        for (var i = 0; i < initialCapacity * 2; i++) {
+            assertEquals(i, deque.steal());
+        }
+        for (var i = initialCapacity * 4; i > initialCapacity * 2; i--) {
+            assertEquals(i, deque.pop());
+        }
+        assertEquals(initialCapacity, deque.capacity());
+        assertEquals(initialCapacity * 2, deque.steal());
+        assertTrue(deque.isEmpty());
+    }
+
+    @Test
+    public void testNullIsRejected() {
+        assertThrows(NullPointerException.class, () -> s.push(null));
+    }
+
+    @Test
+    public void testOwnerAndThievesTakeEachItemOnce() throws InterruptedException {
+        var deque = new WorkStealingDeque();
+        var items = 200_000;
+        var seen = ConcurrentHashMap.<Integer>newKeySet();
+        var duplicates = new AtomicInteger();
+        var ownerDone = new AtomicBoolean();
+        var thieves = new ArrayList<Thread>();
+        for (var t = 0; t < 3; t++) {
+            thieves.add(new Thread(() -> {
+                while (true) {
+                    var item = deque.steal();
+                    if (item != null) {
+                        if (!seen.add((Integer) item)) {
+                            duplicates.incrementAndGet();
+                        }
+                    } else if (ownerDone.get()) {
+                        return;
+                    } else {
+                        Thread.yield();
+                    }
+                }
+            }));
+        }
+        thieves.forEach(Thread::start);
+        // The owner pushes in bursts and pops some back, so that it races the
+        // thieves for the last item and the array grows and shrinks.
+        var next = 0;
+        while (next < items) {
+            for (var i = 0; i < 100 && next < items; i++) {
+                deque.push(next++);
+            }
+            for (var i = 0; i < 60 && !deque.isEmpty(); i++) {
+                try {
+                    if (!seen.add((Integer) deque.pop())) {
+                        duplicates.incrementAndGet();
+                    }
+                } catch (NoSuchElementException e) {
+                    // A thief took the last item first.
+                }
+            }
+        }
+        ownerDone.set(true);
+        for (var thief : thieves) {
+            thief.join();
+        }
+        assertEquals(0, duplicates.get());
+        assertEquals(items, seen.size());
+        assertTrue(deque.isEmpty());
+    }
+}
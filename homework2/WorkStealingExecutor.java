@@ -0,0 +1,340 @@
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.NoSuchElementException;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A small fork/join executor built on WorkStealingDeque. Each worker thread
+ * owns a deque: tasks it forks are pushed onto its own deque and popped again
+ * newest first, which keeps the working set in cache, while idle workers
+ * steal the oldest (and usually biggest) tasks from the other end of someone
+ * else's deque. Tasks submitted from outside go into a shared LockFreeQueue.
+ *
+ * A worker that joins a task that is not yet done helps out by running other
+ * tasks in the meantime, so joins never block a worker thread.
+ *
+ * Closing the executor lets the workers finish the tasks they are running,
+ * and completes every task still queued with a CancellationException, so
+ * nobody waits on them forever.
+ *
+ * For comparison, an executor can also be created where forked tasks go into
+ * the shared queue rather than a worker's deque, which is what a thread pool
+ * with a single work queue does.
+ */
+public class WorkStealingExecutor implements AutoCloseable {
+
+    /**
+     * A task that can be forked, to run asynchronously in the executor, and
+     * then joined to get its result. fork and join may only be called from
+     * inside another task. Each task can be forked or invoked only once.
+     */
+    public abstract static class Task<T> {
+        private static final VarHandle SCHEDULED;
+        private static final VarHandle STARTED;
+
+        static {
+            try {
+                var lookup = MethodHandles.lookup();
+                SCHEDULED = lookup.findVarHandle(Task.class, "scheduled", boolean.class);
+                STARTED = lookup.findVarHandle(Task.class, "started", boolean.class);
+            } catch (ReflectiveOperationException e) {
+                throw new ExceptionInInitializerError(e);
+            }
+        }
+
+        // Set once the task has been forked or invoked.
+        private volatile boolean scheduled;
+        // Set by whichever comes first of running the task and cancelling it,
+        // so that a task cancelled while queued is skipped when it is taken.
+        private volatile boolean started;
+        private volatile boolean done;
+        private T result;
+        private RuntimeException exception;
+        private Error error;
+        // The external thread waiting in invoke, if any.
+        private volatile Thread waiter;
+
+        protected abstract T compute();
+
+        public final Task<T> fork() {
+            var worker = currentWorker();
+            claim();
+            worker.executor.schedule(worker, this);
+            return this;
+        }
+
+        public final T join() {
+            var worker = currentWorker();
+            while (!done) {
+                if (!worker.runOneTask()) {
+                    Thread.onSpinWait();
+                }
+            }
+            return get();
+        }
+
+        public final boolean isDone() {
+            return done;
+        }
+
+        final void run() {
+            if (!STARTED.compareAndSet(this, false, true)) {
+                return;
+            }
+            try {
+                result = compute();
+            } catch (RuntimeException e) {
+                exception = e;
+            } catch (Error e) {
+                error = e;
+            }
+            complete();
+        }
+
+        // Completes the task with a CancellationException, because the
+        // executor was closed while it was still queued, unless it has
+        // already started.
+        final void cancel() {
+            if (STARTED.compareAndSet(this, false, true)) {
+                exception = new CancellationException("Executor was closed before the task ran");
+                complete();
+            }
+        }
+
+        private void complete() {
+            // The volatile write publishes the result.
+            done = true;
+            var thread = waiter;
+            if (thread != null) {
+                LockSupport.unpark(thread);
+            }
+        }
+
+        private void claim() {
+            if (!SCHEDULED.compareAndSet(this, false, true)) {
+                throw new IllegalStateException("Task has already been forked or invoked");
+            }
+        }
+
+        private T get() {
+            if (exception != null) {
+                throw exception;
+            }
+            if (error != null) {
+                throw error;
+            }
+            return result;
+        }
+
+        private static Worker currentWorker() {
+            if (Thread.currentThread() instanceof Worker worker) {
+                return worker;
+            }
+            throw new IllegalStateException("Tasks can only be forked and joined inside the executor");
+        }
+    }
+
+    private final class Worker extends Thread {
+        final WorkStealingExecutor executor = WorkStealingExecutor.this;
+        final WorkStealingDeque deque = new WorkStealingDeque();
+        // Reused for taking one task at a time from the shared queue.
+        private final Object[] taken = new Object[1];
+
+        Worker(int index) {
+            super("work-stealing-worker-" + index);
+            setDaemon(true);
+        }
+
+        @Override
+        public void run() {
+            var idle = 0;
+            while (!shutdown) {
+                if (runOneTask()) {
+                    idle = 0;
+                } else if (++idle < IDLE_SPINS) {
+                    Thread.onSpinWait();
+                } else {
+                    // Nothing to do for a while, so stop burning a core.
+                    LockSupport.parkNanos(IDLE_PARK_NANOS);
+                }
+            }
+        }
+
+        // Runs a task from this worker's deque, the shared queue or another
+        // worker's deque, in that order. Returns false if there were none.
+        boolean runOneTask() {
+            var task = deque.isEmpty() ? null : popOwn();
+            if (task == null) {
+                task = takeShared();
+            }
+            if (task == null) {
+                task = stealFromOthers();
+            }
+            if (task == null) {
+                return false;
+            }
+            task.run();
+            return true;
+        }
+
+        private Task<?> popOwn() {
+            try {
+                return (Task<?>) deque.pop();
+            } catch (NoSuchElementException e) {
+                // A thief took the last task between the check and the pop.
+                return null;
+            }
+        }
+
+        private Task<?> takeShared() {
+            if (shared.drainTo(taken, 1) == 0) {
+                return null;
+            }
+            var task = (Task<?>) taken[0];
+            taken[0] = null;
+            return task;
+        }
+
+        private Task<?> stealFromOthers() {
+            // Start at a random victim so thieves spread out.
+            var start = ThreadLocalRandom.current().nextInt(workers.length);
+            for (var i = 0; i < workers.length; i++) {
+                var victim = workers[(start + i) % workers.length];
+                if (victim != this) {
+                    var task = (Task<?>) victim.deque.steal();
+                    if (task != null) {
+                        return task;
+                    }
+                }
+            }
+            return null;
+        }
+    }
+
+    private static final int IDLE_SPINS = 1000;
+    private static final long IDLE_PARK_NANOS = 50_000;
+
+    private final Worker[] workers;
+    private final Queue shared = new LockFreeQueue();
+    private final boolean stealing;
+    private volatile boolean shutdown;
+
+    public WorkStealingExecutor() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    public WorkStealingExecutor(int parallelism) {
+        this(parallelism, true);
+    }
+
+    // With stealing false, forked tasks go into the shared queue instead of
+    // the worker's own deque. This is only meant for comparisons: a join then
+    // helps by running the oldest queued task, which in a deep tree of tasks
+    // nests joins far deeper than work stealing does.
+    WorkStealingExecutor(int parallelism, boolean stealing) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Parallelism must be at least 1");
+        }
+        this.stealing = stealing;
+        workers = new Worker[parallelism];
+        for (var i = 0; i < parallelism; i++) {
+            workers[i] = new Worker(i);
+        }
+        for (var worker : workers) {
+            worker.start();
+        }
+    }
+
+    // Runs the task in the executor, waits for it to finish and returns its
+    // result. Must be called from outside the executor. The wait cannot be
+    // interrupted: an interrupt is remembered, and the thread's interrupt
+    // status is set again once the task is done. If the executor is closed
+    // before the task runs, this throws a CancellationException.
+    public <T> T invoke(Task<T> task) {
+        if (Thread.currentThread() instanceof Worker) {
+            throw new IllegalStateException("Use fork and join inside the executor");
+        }
+        if (shutdown) {
+            throw new IllegalStateException("Executor has been closed");
+        }
+        task.claim();
+        task.waiter = Thread.currentThread();
+        shared.enqueue(task);
+        if (shutdown) {
+            // close may have drained the shared queue before the task got in,
+            // so nobody else would ever take it out. Cancel only this task,
+            // which does nothing if a worker has already started it; the
+            // queue itself is left for close to drain once the workers are
+            // gone.
+            task.cancel();
+        }
+        var interrupted = false;
+        while (!task.done) {
+            LockSupport.park(task);
+            // park returns straight away while the interrupt status is set, so
+            // clear it rather than spin.
+            if (Thread.interrupted()) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+        return task.get();
+    }
+
+    public int parallelism() {
+        return workers.length;
+    }
+
+    // Stops the workers once they finish the tasks they are running, waits
+    // for them, and cancels every task still queued. Like invoke, the wait
+    // cannot be interrupted.
+    @Override
+    public void close() {
+        shutdown = true;
+        for (var worker : workers) {
+            LockSupport.unpark(worker);
+        }
+        var interrupted = false;
+        for (var worker : workers) {
+            while (worker.isAlive()) {
+                try {
+                    worker.join();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+        }
+        // The workers are gone, so nothing else takes from their deques.
+        for (var worker : workers) {
+            Task<?> task;
+            while ((task = (Task<?>) worker.deque.steal()) != null) {
+                task.cancel();
+            }
+        }
+        cancelShared();
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // Cancels every task in the shared queue. Only close calls this, after the
+    // workers have stopped.
+    private void cancelShared() {
+        var taken = new Object[1];
+        while (shared.drainTo(taken, 1) == 1) {
+            ((Task<?>) taken[0]).cancel();
+        }
+    }
+
+    private void schedule(Worker worker, Task<?> task) {
+        if (stealing) {
+            worker.deque.push(task);
+        } else {
+            shared.enqueue(task);
+        }
+    }
+}
@@ -0,0 +1,197 @@
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class WorkStealingExecutorTest {
+
+    // Sums values[from] to values[to - 1] by splitting the range in half.
+    static class Sum extends WorkStealingExecutor.Task<Long> {
+        private final long[] values;
+        private final int from;
+        private final int to;
+
+        Sum(long[] values, int from, int to) {
+            this.values = values;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Long compute() {
+            if (to - from <= 100) {
+                var sum = 0L;
+                for (var i = from; i < to; i++) {
+                    sum += values[i];
+                }
+                return sum;
+            }
+            var middle = (from + to) >>> 1;
+            var left = new Sum(values, from, middle).fork();
+            var right = new Sum(values, middle, to).compute();
+            return left.join() + right;
+        }
+    }
+
+    private static long[] values() {
+        var values = new long[100_000];
+        for (var i = 0; i < values.length; i++) {
+            values[i] = i * 3L - 7;
+        }
+        return values;
+    }
+
+    private static long expected(long[] values) {
+        var sum = 0L;
+        for (var value : values) {
+            sum += value;
+        }
+        return sum;
+    }
+
+    @Test
+    public void testForkJoinSum() {
+        var values = values();
+        try (var executor = new WorkStealingExecutor(4)) {
+            assertEquals(4, executor.parallelism());
+            for (var round = 0; round < 5; round++) {
+                assertEquals(expected(values), executor.invoke(new Sum(values, 0, values.length)));
+            }
+        }
+    }
+
+    @Test
+    public void testForkJoinSumThroughTheSharedQueue() {
+        var values = values();
+        try (var executor = new WorkStealingExecutor(4, false)) {
+            assertEquals(expected(values), executor.invoke(new Sum(values, 0, values.length)));
+        }
+    }
+
+    @Test
+    public void testExceptionsReachTheCaller() {
+        var failure = new IllegalArgumentException("bad");
+        try (var executor = new WorkStealingExecutor(2)) {
+            var thrown = assertThrows(IllegalArgumentException.class, () -> executor.invoke(new WorkStealingExecutor.Task<Void>() {
+                @Override
+                protected Void compute() {
+                    var child = new WorkStealingExecutor.Task<Void>() {
+                        @Override
+                        protected Void compute() {
+                            throw failure;
+                        }
+                    }.fork();
+                    return child.join();
+                }
+            }));
+            assertSame(failure, thrown);
+        }
+    }
+
+    @Test
+    public void testMisuseIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> new WorkStealingExecutor(0));
+        var task = new Sum(new long[1], 0, 1);
+        assertThrows(IllegalStateException.class, () -> task.fork());
+        var executor = new WorkStealingExecutor(1);
+        executor.close();
+        assertThrows(IllegalStateException.class, () -> executor.invoke(task));
+    }
+
+    @Test
+    public void testTasksRunOnlyOnce() {
+        try (var executor = new WorkStealingExecutor(2)) {
+            var task = new Sum(new long[] {1, 2, 3}, 0, 3);
+            assertEquals(6L, executor.invoke(task));
+            assertThrows(IllegalStateException.class, () -> executor.invoke(task));
+            assertThrows(IllegalStateException.class, () -> executor.invoke(new WorkStealingExecutor.Task<Void>() {
+                @Override
+                protected Void compute() {
+                    var child = new Sum(new long[1], 0, 1).fork();
+                    child.fork();
+                    return null;
+                }
+            }));
+        }
+    }
+
+    @Test
+    public void testCloseCancelsQueuedTasks() throws Exception {
+        var executor = new WorkStealingExecutor(1);
+        var started = new CountDownLatch(1);
+        var release = new CountDownLatch(1);
+        // Keep the only worker busy, so the next task stays queued.
+        var busy = new Thread(() -> executor.invoke(new WorkStealingExecutor.Task<Void>() {
+            @Override
+            protected Void compute() {
+                started.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return null;
+            }
+        }));
+        busy.start();
+        started.await();
+        var failure = new AtomicReference<Throwable>();
+        var queued = new Thread(() -> {
+            try {
+                executor.invoke(new Sum(new long[1], 0, 1));
+            } catch (Throwable e) {
+                failure.set(e);
+            }
+        });
+        queued.start();
+        waitUntilWaiting(queued);
+        var closer = new Thread(executor::close);
+        closer.start();
+        waitUntilWaiting(closer);
+        release.countDown();
+        closer.join();
+        queued.join();
+        busy.join();
+        assertInstanceOf(CancellationException.class, failure.get());
+    }
+
+    @Test
+    public void testInvokeKeepsTheInterrupt() {
+        try (var executor = new WorkStealingExecutor(1)) {
+            var values = values();
+            Thread.currentThread().interrupt();
+            assertEquals(expected(values), executor.invoke(new Sum(values, 0, values.length)));
+            assertTrue(Thread.interrupted());
+        }
+    }
+
+    @Test
+    public void testCancelledTasksAreSkipped() {
+        var ran = new boolean[1];
+        var cancelled = new WorkStealingExecutor.Task<Void>() {
+            @Override
+            protected Void compute() {
+                ran[0] = true;
+                return null;
+            }
+        };
+        cancelled.cancel();
+        // A worker that takes a cancelled task later skips it.
+        cancelled.run();
+        assertTrue(cancelled.isDone());
+        assertFalse(ran[0]);
+    }
+
+    // Waits for the thread to block, in invoke or in close.
+    private static void waitUntilWaiting(Thread thread) {
+        while (thread.getState() != Thread.State.WAITING) {
+            Thread.yield();
+        }
+    }
+}